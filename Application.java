@@ -1,18 +1,71 @@
 package com.example.bfhs;
 
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
 
+/**
+ * {@code bfh.mode=cli} (default) starts without a web server, runs the startup flow (or batch)
+ * and exits. {@code bfh.mode=server} starts the WebFlux server and stays up, taking flows on
+ * {@code POST /flows} (see {@link FlowController}) so later flows reuse the warmed JIT,
+ * connection pool and caches. Watch mode also keeps a CLI process running.
+ */
 @SpringBootApplication
+@ImportRuntimeHints(BfhRuntimeHints.class)
 public class Application {
   public static void main(String[] args) {
-    SpringApplication.run(Application.class, args);
+    SpringApplication application = new SpringApplication(Application.class);
+    application.addListeners(new WebApplicationTypeSelector());
+    ConfigurableApplicationContext context = application.run(args);
+    Environment environment = context.getEnvironment();
+    if (!isServerMode(environment) && !environment.getProperty("bfh.watch.enabled", Boolean.class, false)) {
+      System.exit(SpringApplication.exit(context));
+    }
+  }
+
+  static boolean isServerMode(Environment environment) {
+    // case-sensitive, like the conditions on FlowController and startupFlow
+    return "server".equals(environment.getProperty("bfh.mode", "cli"));
+  }
+
+  /**
+   * Picks the web application type from {@code bfh.mode} once the environment is known, unless
+   * {@code spring.main.web-application-type} is set explicitly.
+   */
+  static class WebApplicationTypeSelector implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+      if (event.getEnvironment().containsProperty("spring.main.web-application-type")) return;
+      event.getSpringApplication().setWebApplicationType(
+          isServerMode(event.getEnvironment()) ? WebApplicationType.REACTIVE : WebApplicationType.NONE);
+    }
   }
 
   @Bean
-  CommandLineRunner startupFlow(FlowService flowService) {
-    return args -> flowService.executeFlow();
+  @ConditionalOnExpression("${bfh.startup-flow.enabled:true} and '${bfh.mode:cli}' != 'server'")
+  CommandLineRunner startupFlow(FlowLauncher flowLauncher,
+                                BatchRunner batchRunner,
+                                @Value("${bfh.batch.input:}") String batchInput,
+                                @Value("${bfh.batch.output:bfh-results.jsonl}") String batchOutput) {
+    // the flows themselves are non-blocking; only the runner waits for them
+    return args -> {
+      if (StringUtils.hasText(batchInput)) {
+        batchRunner.runBatch(Path.of(batchInput), Path.of(batchOutput)).block();
+      } else {
+        flowLauncher.launch().block();
+      }
+    };
   }
 }
@@ -0,0 +1,150 @@
+package com.example.bfhs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the flow for every candidate in a JSONL or CSV file and streams one JSON result per line.
+ * Candidates are read lazily and at most {@code bfh.batch.parallelism} flows are in flight,
+ * so memory stays flat regardless of cohort size.
+ */
+@Component
+public class BatchRunner {
+  private final Logger log = LoggerFactory.getLogger(BatchRunner.class);
+
+  private final FlowLauncher flowLauncher;
+  private final ObjectMapper objectMapper;
+  private final CsvMapper csvMapper = new CsvMapper();
+  private final int parallelism;
+
+  public BatchRunner(FlowLauncher flowLauncher,
+                     ObjectMapper objectMapper,
+                     @Value("${bfh.batch.parallelism:32}") int parallelism) {
+    this.flowLauncher = flowLauncher;
+    this.objectMapper = objectMapper;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Malformed input records are logged and skipped rather than failing the whole run.
+   *
+   * @return number of flows per final status
+   */
+  public Mono<Map<FlowResult.Status, Long>> runBatch(Path input, Path output) {
+    log.info("Starting batch run from {} to {} with parallelism {} in {} mode", input, output, parallelism,
+        flowLauncher.mode());
+    LongAdder malformed = new LongAdder();
+    return Flux.using(() -> Files.newBufferedWriter(output),
+            writer -> readCandidates(input, malformed)
+                .flatMap(flowLauncher::launch, parallelism)
+                // single worker, so lines are written one at a time and off the event loop
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(result -> writeLine(writer, result)),
+            this::closeQuietly)
+        .collect(() -> new EnumMap<FlowResult.Status, Long>(FlowResult.Status.class),
+            (counts, result) -> counts.merge(result.getStatus(), 1L, Long::sum))
+        .map(counts -> (Map<FlowResult.Status, Long>) counts)
+        .doOnNext(counts -> log.info("Batch run finished: {}, {} malformed record(s) skipped", counts,
+            malformed.sum()));
+  }
+
+  Flux<Candidate> readCandidates(Path input, LongAdder malformed) {
+    Flux<Candidate> candidates = input.getFileName().toString().toLowerCase().endsWith(".csv")
+        ? readCsv(input, malformed)
+        : readJsonLines(input, malformed);
+    return candidates.subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * JSONL: one candidate object per line, parsed line by line so a bad line cannot derail the rest.
+   */
+  private Flux<Candidate> readJsonLines(Path input, LongAdder malformed) {
+    ObjectReader reader = objectMapper.readerFor(Candidate.class);
+    return Flux.using(() -> Files.newBufferedReader(input),
+        lines -> Flux.fromStream(lines.lines())
+            .index()
+            .filter(line -> !line.getT2().isBlank())
+            .<Candidate>handle((line, sink) -> {
+              try {
+                sink.next(reader.readValue(line.getT2()));
+              } catch (JsonProcessingException e) {
+                malformed.increment();
+                log.warn("Skipping malformed record at {} line {}: {}", input, line.getT1() + 1,
+                    e.getOriginalMessage());
+              }
+            }),
+        this::closeQuietly);
+  }
+
+  private Flux<Candidate> readCsv(Path input, LongAdder malformed) {
+    CsvSchema schema = CsvSchema.emptySchema().withHeader();
+    return Flux.using(() -> csvMapper.readerFor(Candidate.class).with(schema).<Candidate>readValues(input.toFile()),
+        rows -> Flux.<Candidate>generate(sink -> nextCsvRecord(rows, input, malformed, sink)),
+        this::closeQuietly);
+  }
+
+  private void nextCsvRecord(MappingIterator<Candidate> rows, Path input, LongAdder malformed,
+                             SynchronousSink<Candidate> sink) {
+    int lastFailedLine = -1;
+    while (true) {
+      int line = rows.getCurrentLocation().getLineNr();
+      try {
+        if (rows.hasNextValue()) {
+          sink.next(rows.nextValue());
+        } else {
+          sink.complete();
+        }
+        return;
+      } catch (IOException | RuntimeException e) {
+        if (line == lastFailedLine) {
+          // the iterator could not move past the bad record
+          sink.error(e);
+          return;
+        }
+        lastFailedLine = line;
+        malformed.increment();
+        log.warn("Skipping malformed record at {} line {}: {}", input, line, e.getMessage());
+      }
+    }
+  }
+
+  private void writeLine(BufferedWriter writer, FlowResult result) {
+    try {
+      writer.write(objectMapper.writeValueAsString(result));
+      writer.newLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void closeQuietly(AutoCloseable closeable) {
+    try {
+      closeable.close();
+    } catch (Exception e) {
+      log.warn("Error closing batch resource: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.example.bfhs;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer. Types Jackson reads or
+ * writes outside of controllers (the generate response decoded by the transports, batch and cache
+ * files) need reflective access to their Lombok-generated accessors and constructors. Netty,
+ * Reactor Netty and Caffeine ship or get their own metadata.
+ */
+class BfhRuntimeHints implements RuntimeHintsRegistrar {
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+        GenerateResponse.class, Candidate.class, FlowResult.class, CachedQuestion.class);
+    // VirtualThreads looks this up reflectively so the jar still runs on Java 17
+    hints.reflection().registerType(Executors.class, type -> type
+        .withMethod("newVirtualThreadPerTaskExecutor", List.of(), ExecutableMode.INVOKE));
+    // glyph lists and CMaps PDFBox loads from the classpath
+    hints.resources().registerPattern("org/apache/pdfbox/resources/**");
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.bfhs;
+
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * HTTP calls made by the flow, so the client library can be swapped via {@code bfh.transport}
+ * ({@code webclient} or {@code jdk}). Retries and timeouts are applied by the callers.
+ * Error statuses (4xx/5xx) fail with a
+ * {@link org.springframework.web.reactive.function.client.WebClientResponseException} for every implementation.
+ */
+public interface BfhTransport {
+  /**
+   * POSTs the candidate to generateWebhook.
+   */
+  Mono<GenerateResponse> generate(String url, Map<String, String> body);
+
+  /**
+   * GETs {@code url}. The body is streamed and must always be consumed (or drained) by the caller.
+   * Redirects are not followed.
+   */
+  Mono<ResponseEntity<Flux<DataBuffer>>> fetch(String url, HttpHeaders headers);
+
+  /**
+   * POSTs the final query with the access token as Authorization header; emits the response body.
+   */
+  Mono<String> submit(String url, String accessToken, Map<String, String> body);
+}
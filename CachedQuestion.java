@@ -0,0 +1,36 @@
+package com.example.bfhs;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * Cache entry for a fetched question page. Only the metadata is stored in the on-disk index;
+ * the text itself lives in a file named after its content hash.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CachedQuestion {
+  private String url;
+  private String contentHash;
+  private long fetchedAt;
+  private String etag;
+  private String lastModified;
+  @JsonIgnore
+  private String text;
+
+  /**
+   * A copy of this entry with a new fetch time; entries in the memory cache are shared between
+   * flows and are never modified in place.
+   */
+  public CachedQuestion fetchedAgainAt(long fetchedAt) {
+    CachedQuestion copy = new CachedQuestion();
+    copy.setUrl(url);
+    copy.setContentHash(contentHash);
+    copy.setFetchedAt(fetchedAt);
+    copy.setEtag(etag);
+    copy.setLastModified(lastModified);
+    copy.setText(text);
+    return copy;
+  }
+}
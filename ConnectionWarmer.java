@@ -0,0 +1,89 @@
+package com.example.bfhs;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Opens (and TLS-handshakes) pooled connections to the generate and submit hosts in the
+ * background while the rest of the context starts, so the first flow does not pay for DNS,
+ * TCP and TLS setup. Only active with the WebClient transport, whose pool it fills; other
+ * transports would just send requests the flow never reuses.
+ */
+@Component
+@ConditionalOnExpression("${bfh.http.warmup.enabled:true} and '${bfh.transport:webclient}' == 'webclient'")
+public class ConnectionWarmer {
+  private final Logger log = LoggerFactory.getLogger(ConnectionWarmer.class);
+
+  private final HttpClient httpClient;
+  private final Set<String> origins = new LinkedHashSet<>();
+  private final int connectionsPerHost;
+  private final boolean enabled;
+  private Disposable warmup;
+
+  public ConnectionWarmer(HttpClient bfhHttpClient,
+                          @Value("${bfh.generate.url}") String generateUrl,
+                          @Value("${bfh.submit.url}") String submitUrl,
+                          @Value("${bfh.http.warmup.connections-per-host:2}") int connectionsPerHost,
+                          @Value("${bfh.http.warmup.enabled:true}") boolean enabled) {
+    this.httpClient = bfhHttpClient;
+    this.enabled = enabled;
+    this.connectionsPerHost = connectionsPerHost;
+    for (String url : new String[] {generateUrl, submitUrl}) {
+      if (!StringUtils.hasText(url)) continue;
+      URI uri = URI.create(url);
+      origins.add(uri.getScheme() + "://" + uri.getAuthority() + "/");
+    }
+  }
+
+  @PostConstruct
+  void start() {
+    // with AOT the condition above is fixed at build time, so a runtime switch-off is checked here
+    if (!enabled) return;
+    long started = System.nanoTime();
+    warmup = httpClient.warmup()
+        .thenMany(Flux.fromIterable(origins)
+            .flatMap(origin -> Flux.range(0, connectionsPerHost).flatMap(i -> open(origin))))
+        .count()
+        .subscribe(
+            opened -> log.info("Warmed up {} of {} connection(s) to {} in {} ms", opened,
+                connectionsPerHost * origins.size(), origins, Duration.ofNanos(System.nanoTime() - started).toMillis()),
+            e -> log.warn("Connection warm-up failed: {}", e.getMessage()));
+  }
+
+  /**
+   * Emits once if the connection was opened, completes empty if it could not be.
+   */
+  private Mono<Boolean> open(String origin) {
+    // HEAD is enough to connect and handshake; the status does not matter
+    return httpClient.head()
+        .uri(origin)
+        .responseSingle((response, body) -> body.then())
+        .thenReturn(true)
+        .timeout(Duration.ofSeconds(10))
+        .onErrorResume(e -> {
+          log.debug("Warm-up request to {} failed: {}", origin, e.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  @PreDestroy
+  void stop() {
+    if (warmup != null) warmup.dispose();
+  }
+}
@@ -0,0 +1,197 @@
+package com.example.bfhs;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.HtmlUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Fetches Google Drive share links ({@code /file/d/<id>/view}) as their direct download. The share
+ * URL is rewritten with {@code bfh.drive.download-url}, redirects are followed by hand (neither
+ * transport follows them) and the "can't scan this file for viruses" interstitial is confirmed.
+ * The URL that finally answered 2xx with the file is remembered per file id, so later flows go
+ * straight to it; if it stops working the chain is resolved again from the start. HTML answers
+ * (viewer or sign-in pages) are only remembered when they came after the confirm step. Any other
+ * URL is passed through.
+ */
+@Component
+public class DriveLinkResolver {
+  private final Logger log = LoggerFactory.getLogger(DriveLinkResolver.class);
+
+  private static final Pattern SHARE_PATH = Pattern.compile("/file/d/([\\w-]+)");
+  private static final Pattern ID_PARAM = Pattern.compile("/(?:uc|open)\\?(?:.*&)?id=([\\w-]+)");
+  private static final Pattern FORM = Pattern.compile("(?is)<form\\b([^>]*)>(.*?)</form>");
+  private static final Pattern INPUT = Pattern.compile("(?is)<input\\b([^>]*)>");
+  private static final Pattern ACTION = attribute("action");
+  private static final Pattern NAME = attribute("name");
+  private static final Pattern VALUE = attribute("value");
+  private static final Pattern CONFIRM_LINK = Pattern.compile("(?i)href=\"([^\"]*[?&](?:amp;)?confirm=[^\"]*)\"");
+  private static final int MAX_INTERSTITIAL_BYTES = 1024 * 1024;
+
+  private final BfhTransport transport;
+  private final String downloadUrl;
+  private final String downloadHost;
+  private final int maxRedirects;
+  private final Cache<String, String> resolved;
+
+  public DriveLinkResolver(BfhTransport transport,
+                           @Value("${bfh.drive.download-url:https://drive.google.com/uc?export=download&id={id}}") String downloadUrl,
+                           @Value("${bfh.drive.max-redirects:5}") int maxRedirects,
+                           @Value("${bfh.drive.resolved-ttl:PT6H}") Duration resolvedTtl) {
+    this.transport = transport;
+    this.downloadUrl = downloadUrl;
+    this.downloadHost = URI.create(downloadUrl.replace("{id}", "id")).getHost();
+    this.maxRedirects = maxRedirects;
+    this.resolved = Caffeine.newBuilder()
+        .maximumSize(256)
+        .expireAfterWrite(resolvedTtl)
+        .build();
+  }
+
+  /**
+   * Same contract as {@link BfhTransport#fetch}, with Drive share links resolved first.
+   */
+  public Mono<ResponseEntity<Flux<DataBuffer>>> fetch(String url, HttpHeaders headers) {
+    Optional<String> fileId = fileId(url);
+    if (fileId.isEmpty()) return transport.fetch(url, headers);
+
+    String id = fileId.get();
+    Mono<ResponseEntity<Flux<DataBuffer>>> fromStart =
+        Mono.defer(() -> follow(id, downloadUrl.replace("{id}", id), headers, 0, false));
+    String known = resolved.getIfPresent(id);
+    if (known == null) return fromStart;
+
+    return follow(id, known, headers, 0, false)
+        .onErrorResume(WebClientResponseException.class, e -> {
+          log.info("Resolved download URL for Drive file {} answered {}, resolving again", id, e.getStatusCode());
+          resolved.invalidate(id);
+          return fromStart;
+        });
+  }
+
+  /**
+   * The resolved download URL for a share link, if one has been seen recently.
+   */
+  public Optional<String> resolvedUrl(String url) {
+    return fileId(url).map(resolved::getIfPresent);
+  }
+
+  Optional<String> fileId(String url) {
+    if (url == null) return Optional.empty();
+    URI uri;
+    try {
+      uri = URI.create(url);
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+    String host = uri.getHost();
+    if (host == null || !(host.equals("drive.google.com") || host.equals(downloadHost))) return Optional.empty();
+    Matcher share = SHARE_PATH.matcher(url);
+    if (share.find()) return Optional.of(share.group(1));
+    Matcher param = ID_PARAM.matcher(url);
+    return param.find() ? Optional.of(param.group(1)) : Optional.empty();
+  }
+
+  /**
+   * @param confirmed whether the interstitial has been confirmed on the way to {@code url}
+   */
+  private Mono<ResponseEntity<Flux<DataBuffer>>> follow(String id, String url, HttpHeaders headers, int hop,
+                                                        boolean confirmed) {
+    if (hop > maxRedirects) {
+      return Mono.error(new IllegalStateException("More than " + maxRedirects + " redirects resolving Drive file " + id));
+    }
+    return transport.fetch(url, headers).flatMap(response -> {
+      HttpStatusCode status = response.getStatusCode();
+      Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+      URI location = response.getHeaders().getLocation();
+      if (status.is3xxRedirection() && location != null) {
+        // drain so the connection goes back to the pool before the next hop
+        String next = URI.create(url).resolve(location).toString();
+        return body.then(Mono.defer(() -> follow(id, next, headers, hop + 1, confirmed)));
+      }
+      if (status.is2xxSuccessful() && isHtml(response.getHeaders())) {
+        return DataBufferUtils.join(StreamingBodies.limit(body, MAX_INTERSTITIAL_BYTES))
+            .flatMap(page -> {
+              Optional<String> confirm = confirmUrl(page.toString(StandardCharsets.UTF_8), URI.create(url));
+              if (confirm.isPresent()) {
+                DataBufferUtils.release(page);
+                log.info("Confirming download interstitial for Drive file {}", id);
+                return follow(id, confirm.get(), headers, hop + 1, true);
+              }
+              // an ordinary HTML page, hand it on unchanged; before the confirm step it is more
+              // likely a viewer or sign-in page than the question, so it is not remembered
+              if (confirmed) remember(id, url);
+              return Mono.just(new ResponseEntity<>(Flux.just(page), response.getHeaders(), status));
+            })
+            .switchIfEmpty(Mono.fromSupplier(() -> new ResponseEntity<>(Flux.empty(), response.getHeaders(), status)));
+      }
+      if (status.is2xxSuccessful()) remember(id, url);
+      return Mono.just(new ResponseEntity<>(body, response.getHeaders(), status));
+    });
+  }
+
+  private void remember(String id, String url) {
+    if (!url.equals(resolved.getIfPresent(id))) {
+      log.info("Drive file {} resolved to {}", id, url);
+      resolved.put(id, url);
+    }
+  }
+
+  /**
+   * The URL behind the interstitial's download form, or failing that its confirm link.
+   */
+  static Optional<String> confirmUrl(String html, URI base) {
+    Matcher form = FORM.matcher(html);
+    while (form.find()) {
+      String action = attributeValue(form.group(1), ACTION);
+      if (action == null || !action.contains("download")) continue;
+      UriComponentsBuilder url = UriComponentsBuilder.fromUri(base.resolve(HtmlUtils.htmlUnescape(action)));
+      Matcher input = INPUT.matcher(form.group(2));
+      while (input.find()) {
+        String name = attributeValue(input.group(1), NAME);
+        String value = attributeValue(input.group(1), VALUE);
+        if (name != null) url.replaceQueryParam(HtmlUtils.htmlUnescape(name), value == null ? "" : HtmlUtils.htmlUnescape(value));
+      }
+      return Optional.of(url.encode().build().toUriString());
+    }
+    Matcher link = CONFIRM_LINK.matcher(html);
+    if (link.find()) return Optional.of(base.resolve(HtmlUtils.htmlUnescape(link.group(1))).toString());
+    return Optional.empty();
+  }
+
+  private static boolean isHtml(HttpHeaders headers) {
+    return headers.getContentType() != null && headers.getContentType().getSubtype().contains("html");
+  }
+
+  private static Pattern attribute(String name) {
+    return Pattern.compile("(?i)(?:^|\\s)" + name + "\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s\"'>]+))");
+  }
+
+  private static String attributeValue(String attributes, Pattern attribute) {
+    Matcher matcher = attribute.matcher(attributes);
+    if (!matcher.find()) return null;
+    return matcher.group(1) != null ? matcher.group(1)
+        : matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.bfhs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Server mode entry point. {@code POST /flows} with a JSON candidate (or no body, for the
+ * configured one) runs one flow and returns its {@link FlowResult}; posting
+ * {@code application/x-ndjson} candidates streams back one result per line as flows finish,
+ * at most {@code bfh.batch.parallelism} at a time.
+ */
+@RestController
+@ConditionalOnProperty(name = "bfh.mode", havingValue = "server")
+public class FlowController {
+  private final FlowLauncher flowLauncher;
+  private final FlowService flowService;
+  private final int parallelism;
+
+  public FlowController(FlowLauncher flowLauncher,
+                        FlowService flowService,
+                        @Value("${bfh.batch.parallelism:32}") int parallelism) {
+    this.flowLauncher = flowLauncher;
+    this.flowService = flowService;
+    this.parallelism = parallelism;
+  }
+
+  @PostMapping(path = "/flows", produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<FlowResult> launch(@RequestBody(required = false) Mono<Candidate> candidate) {
+    return candidate
+        .map(FlowController::validated)
+        .defaultIfEmpty(flowService.configuredCandidate())
+        .flatMap(flowLauncher::launch);
+  }
+
+  @PostMapping(path = "/flows", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<FlowResult> launchAll(@RequestBody Flux<Candidate> candidates) {
+    return candidates
+        .map(FlowController::validated)
+        .flatMap(flowLauncher::launch, parallelism);
+  }
+
+  private static Candidate validated(Candidate candidate) {
+    if (!StringUtils.hasText(candidate.getName()) || !StringUtils.hasText(candidate.getRegNo())
+        || !StringUtils.hasText(candidate.getEmail())) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "name, regNo and email are required");
+    }
+    return candidate;
+  }
+}
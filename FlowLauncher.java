@@ -0,0 +1,45 @@
+package com.example.bfhs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts flows in the configured {@code bfh.execution-mode}: {@code reactive} (default) composes
+ * the stages on the Reactor Netty event loop, {@code virtual-threads} runs each flow in blocking
+ * style on its own virtual thread (Java 21+).
+ */
+@Component
+public class FlowLauncher {
+  public enum Mode {
+    REACTIVE,
+    VIRTUAL_THREADS
+  }
+
+  private final FlowService flowService;
+  private final VirtualThreadFlowRunner virtualThreadFlowRunner;
+  private final Mode mode;
+
+  public FlowLauncher(FlowService flowService,
+                      VirtualThreadFlowRunner virtualThreadFlowRunner,
+                      @Value("${bfh.execution-mode:reactive}") Mode mode) {
+    this.flowService = flowService;
+    this.virtualThreadFlowRunner = virtualThreadFlowRunner;
+    this.mode = mode;
+  }
+
+  public Mono<FlowResult> launch(Candidate candidate) {
+    return mode == Mode.VIRTUAL_THREADS
+        ? virtualThreadFlowRunner.executeFlowAsync(candidate)
+        : flowService.executeFlowReactive(candidate);
+  }
+
+  public Mono<FlowResult> launch() {
+    return launch(flowService.configuredCandidate());
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+}
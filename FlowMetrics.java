@@ -0,0 +1,124 @@
+package com.example.bfhs;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Micrometer meters for the BFH flow: a timer per stage (with percentile histograms) and counters
+ * for retries, timeouts, question fallbacks and submit outcomes. Besides the actuator
+ * {@code /actuator/metrics} endpoint, everything can be written to {@code bfh.metrics.dump-file}
+ * on shutdown.
+ */
+@Component
+public class FlowMetrics {
+  private final Logger log = LoggerFactory.getLogger(FlowMetrics.class);
+
+  private final MeterRegistry registry;
+  private final String dumpFile;
+
+  public FlowMetrics(MeterRegistry registry,
+                     SolverCache solverCache,
+                     @Value("${bfh.metrics.dump-file:}") String dumpFile) {
+    this.registry = registry;
+    this.dumpFile = dumpFile;
+    CaffeineCacheMetrics.monitor(registry, solverCache.cache(), "bfh.solver");
+  }
+
+  public void stage(String stage, long durationNanos, boolean success) {
+    Timer.builder("bfh.flow.stage")
+        .tag("stage", stage)
+        .tag("outcome", success ? "success" : "error")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void retry(String stage) {
+    counter("bfh.flow.retries", "stage", stage).increment();
+  }
+
+  /**
+   * Counts {@code error} as a timeout of {@code stage} if it is one.
+   */
+  public void timeout(String stage, Throwable error) {
+    if (error instanceof TimeoutException) {
+      counter("bfh.flow.timeouts", "stage", stage).increment();
+    }
+  }
+
+  /**
+   * Counts which source supplied the question, and a fallback whenever it was not the preferred one.
+   */
+  public void questionSource(String source, boolean fallback) {
+    counter("bfh.flow.question.sources", "source", source).increment();
+    if (fallback) {
+      registry.counter("bfh.flow.question.fallbacks").increment();
+    }
+  }
+
+  public void submit(boolean success) {
+    counter("bfh.flow.submits", "outcome", success ? "success" : "failure").increment();
+  }
+
+  public void flow(FlowResult.Status status) {
+    counter("bfh.flow.results", "status", status.name()).increment();
+  }
+
+  public MeterRegistry registry() {
+    return registry;
+  }
+
+  private Counter counter(String name, String tagKey, String tagValue) {
+    return registry.counter(name, tagKey, tagValue);
+  }
+
+  @PreDestroy
+  void dump() {
+    if (!StringUtils.hasText(dumpFile)) return;
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Path.of(dumpFile), StandardCharsets.UTF_8))) {
+      registry.getMeters().stream()
+          .sorted(Comparator.comparing((Meter meter) -> meter.getId().getName())
+              .thenComparing(meter -> meter.getId().getTags().toString()))
+          .forEach(meter -> write(out, meter));
+      log.info("Wrote metrics to {}", dumpFile);
+    } catch (IOException e) {
+      log.warn("Error writing metrics dump {}: {}", dumpFile, e.getMessage());
+    }
+  }
+
+  private void write(PrintWriter out, Meter meter) {
+    StringBuilder line = new StringBuilder(meter.getId().getName()).append(meter.getId().getTags());
+    meter.measure().forEach(measurement ->
+        line.append(' ').append(measurement.getStatistic().getTagValueRepresentation())
+            .append('=').append(measurement.getValue()));
+    if (meter instanceof Timer timer) {
+      for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+        line.append(" p").append(percentile.percentile() * 100)
+            .append('=').append(Duration.ofNanos((long) percentile.value()).toMillis()).append("ms");
+      }
+    }
+    out.println(line);
+  }
+}
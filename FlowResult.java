@@ -0,0 +1,34 @@
+package com.example.bfhs;
+
+import java.util.Map;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of one BFH solve flow, including how long each stage took and when it started
+ * (both in millis, the latter relative to the start of the flow).
+ */
+@Value
+@Builder
+public class FlowResult {
+  public enum Status {
+    SUBMITTED,
+    NO_WEBHOOK,
+    NO_QUESTION,
+    NO_QUERY,
+    SUBMIT_FAILED,
+    FAILED
+  }
+
+  String name;
+  String regNo;
+  String webhook;
+  String questionUrl;
+  String finalQuery;
+  Status status;
+  String error;
+  Map<String, Long> stageMillis;
+  Map<String, Long> stageStartMillis;
+  long totalMillis;
+}
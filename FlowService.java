@@ -1,8 +1,5 @@
 package com.example.bfhs;
 
-import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
@@ -10,12 +7,8 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import reactor.core.publisher.Mono;
 
@@ -23,7 +16,11 @@ import reactor.core.publisher.Mono;
 public class FlowService {
   private final Logger log = LoggerFactory.getLogger(FlowService.class);
 
-  private final WebClient webClient;
+  private final BfhTransport transport;
+  private final QuestionSourceRacer questionSourceRacer;
+  private final SqlSolver sqlSolver;
+  private final SolverCache solverCache;
+  private final FlowMetrics flowMetrics;
   private final String name;
   private final String regNo;
   private final String email;
@@ -31,22 +28,24 @@ public class FlowService {
   private final String submitUrl;
   private final String q1Url;
   private final String q2Url;
-  private final String localQuestionFile;
-  private final String inlineQuestion;
 
-  public FlowService(WebClient.Builder webClientBuilder,
+  public FlowService(BfhTransport transport,
+                     QuestionSourceRacer questionSourceRacer,
+                     SqlSolver sqlSolver,
+                     SolverCache solverCache,
+                     FlowMetrics flowMetrics,
                      @Value("${bfh.name}") String name,
                      @Value("${bfh.regNo}") String regNo,
                      @Value("${bfh.email}") String email,
                      @Value("${bfh.generate.url}") String generateUrl,
                      @Value("${bfh.submit.url}") String submitUrl,
                      @Value("${bfh.question1.url}") String q1Url,
-                     @Value("${bfh.question2.url}") String q2Url,
-                     @Value("${bfh.local.question-file:}") String localQuestionFile,
-                     @Value("${bfh.inline.question:}") String inlineQuestion) {
-    this.webClient = webClientBuilder
-        .baseUrl("") // we'll use full urls per call
-        .build();
+                     @Value("${bfh.question2.url}") String q2Url) {
+    this.transport = transport;
+    this.questionSourceRacer = questionSourceRacer;
+    this.sqlSolver = sqlSolver;
+    this.solverCache = solverCache;
+    this.flowMetrics = flowMetrics;
     this.name = name;
     this.regNo = regNo;
     this.email = email;
@@ -54,138 +53,183 @@ public class FlowService {
     this.submitUrl = submitUrl;
     this.q1Url = q1Url;
     this.q2Url = q2Url;
-    this.localQuestionFile = localQuestionFile;
-    this.inlineQuestion = inlineQuestion;
   }
 
-  public void executeFlow() {
-    log.info("Starting BFH solve flow for {}, regNo {}", name, regNo);
+  /**
+   * Runs the flow and blocks until it finishes. Prefer {@link #executeFlowReactive()}.
+   */
+  public FlowResult executeFlow() {
+    return executeFlowReactive().block();
+  }
 
-    // 1. Call generateWebhook
-    Map<String, String> requestBody = Map.of(
-        "name", name,
-        "regNo", regNo,
-        "email", email
-    );
+  /**
+   * Runs generate, question fetch, solve and submit as one non-blocking chain.
+   * Generate and question fetch run concurrently since the question only depends on regNo.
+   * Stage failures are reported through {@link FlowResult#getStatus()} rather than errors.
+   */
+  public Mono<FlowResult> executeFlowReactive() {
+    return executeFlowReactive(configuredCandidate());
+  }
+
+  /**
+   * The candidate from {@code bfh.name}, {@code bfh.regNo} and {@code bfh.email}.
+   */
+  public Candidate configuredCandidate() {
+    return new Candidate(name, regNo, email);
+  }
+
+  /**
+   * Same as {@link #executeFlowReactive()} but for an arbitrary candidate, e.g. from a batch input.
+   */
+  public Mono<FlowResult> executeFlowReactive(Candidate candidate) {
+    return Mono.defer(() -> {
+      String chosenQuestionUrl = chooseQuestionUrl(candidate.getRegNo());
+      return executeFlowReactive(candidate, chosenQuestionUrl, questionText(chosenQuestionUrl));
+    });
+  }
 
-    GenerateResponse generateResponse = webClient.post()
-        .uri(URI.create(generateUrl))
-        .contentType(MediaType.APPLICATION_JSON)
-        .bodyValue(requestBody)
-        .retrieve()
-        .bodyToMono(GenerateResponse.class)
-        .retryWhen(retrySpec())
-        .block();
+  /**
+   * Runs the flow with question text that did not come from the regNo's question URL, e.g. a file
+   * dropped into the watched directory. {@code questionUrl} is only recorded in the result.
+   */
+  Mono<FlowResult> executeFlowReactive(Candidate candidate, String questionUrl, Mono<String> questionText) {
+    return Mono.defer(() -> {
+      log.info("Starting BFH solve flow for {}, regNo {}", candidate.getName(), candidate.getRegNo());
+      StageTimings timings = new StageTimings(flowMetrics);
+      FlowResult.FlowResultBuilder result = FlowResult.builder()
+          .name(candidate.getName())
+          .regNo(candidate.getRegNo())
+          .questionUrl(questionUrl);
+
+      // 1. Call generateWebhook while 2. fetching the question text
+      Mono<GenerateResponse> generate = timings.time("generate", generateWebhook(candidate));
+      Mono<Optional<String>> question = timings.time("question", questionText)
+          .map(Optional::of)
+          .defaultIfEmpty(Optional.empty());
 
-    if (generateResponse == null || !StringUtils.hasText(generateResponse.getWebhook())) {
+      return Mono.zip(generate, question)
+          .flatMap(both -> continueWithWebhook(both.getT1(), both.getT2(), result, timings))
+          .switchIfEmpty(Mono.fromSupplier(() -> {
+            log.error("Failed to get webhook from generateWebhook response: null");
+            return result.status(FlowResult.Status.NO_WEBHOOK);
+          }))
+          .onErrorResume(e -> {
+            log.error("BFH solve flow failed: {}", e.getMessage(), e);
+            return Mono.just(result.status(FlowResult.Status.FAILED).error(e.getMessage()));
+          })
+          .map(builder -> builder
+              .stageMillis(timings.durations())
+              .stageStartMillis(timings.offsets())
+              .totalMillis(timings.totalMillis())
+              .build())
+          .doOnNext(flowResult -> flowMetrics.flow(flowResult.getStatus()))
+          .doOnNext(flowResult -> log.info("Flow finished with status {} in {} ms, stage timings {}, stage starts {}",
+              flowResult.getStatus(), flowResult.getTotalMillis(), flowResult.getStageMillis(),
+              flowResult.getStageStartMillis()));
+    });
+  }
+
+  private Mono<FlowResult.FlowResultBuilder> continueWithWebhook(GenerateResponse generateResponse,
+                                                                 Optional<String> questionText,
+                                                                 FlowResult.FlowResultBuilder result,
+                                                                 StageTimings timings) {
+    if (!StringUtils.hasText(generateResponse.getWebhook())) {
       log.error("Failed to get webhook from generateWebhook response: {}", generateResponse);
-      return;
+      return Mono.just(result.status(FlowResult.Status.NO_WEBHOOK));
     }
 
     String webhookUrl = generateResponse.getWebhook();
     String accessToken = generateResponse.getAccessToken(); // treat as JWT
+    result.webhook(webhookUrl);
 
     log.info("Received webhook: {}, accessToken present: {}", webhookUrl, accessToken != null);
 
-    // 2. Determine which question based on regNo last two digits
-    boolean lastTwoDigitsOdd = isRegNoLastTwoDigitsOdd(regNo);
-    String chosenQuestionUrl = lastTwoDigitsOdd ? q1Url : q2Url;
-    log.info("RegNo last two digits odd? {} -> choosing question URL: {}", lastTwoDigitsOdd, chosenQuestionUrl);
-
-    // 3. Try to fetch question text
-    String questionText = fetchQuestionText(chosenQuestionUrl)
-        .orElseGet(() -> {
-          log.warn("Could not fetch remote question text; trying inline / local fallback");
-          return fallbackQuestionText().orElse(null);
-        });
-
-    if (questionText == null) {
+    if (questionText.isEmpty()) {
       log.error("No question text available. Provide inline question via application.properties or upload a local file.");
-      return;
+      return Mono.just(result.status(FlowResult.Status.NO_QUESTION));
     }
 
+    // 3. Solve and submit
+    return solveAndSubmit(questionText.get(), accessToken, result, timings);
+  }
+
+  private Mono<FlowResult.FlowResultBuilder> solveAndSubmit(String questionText,
+                                                            String accessToken,
+                                                            FlowResult.FlowResultBuilder result,
+                                                            StageTimings timings) {
     log.info("Question text length: {}", questionText.length());
 
-    // 4. Solve the question -> produce finalQuery
-    String finalQuery;
-    try {
-      finalQuery = solveSqlQuestion(questionText);
-    } catch (Exception e) {
-      log.error("Failed to solve SQL question automatically: {}", e.getMessage(), e);
-      // fallback: you can place the final query manually in application.properties
-      finalQuery = null;
-    }
+    Mono<String> solved = Mono.fromCallable(() -> solveSqlQuestion(questionText))
+        .onErrorResume(e -> {
+          log.error("Failed to solve SQL question automatically: {}", e.getMessage(), e);
+          // fallback: you can place the final query manually in application.properties
+          return Mono.empty();
+        })
+        .filter(StringUtils::hasText);
 
-    if (!StringUtils.hasText(finalQuery)) {
-      log.warn("No finalQuery produced automatically. Please provide 'finalQuery' in application.properties or paste it here.");
-      return;
-    }
+    return timings.time("solve", solved)
+        .flatMap(finalQuery -> {
+          result.finalQuery(finalQuery);
+          return timings.time("submit", submitFinalQuery(accessToken, finalQuery))
+              .map(response -> {
+                log.info("Successfully submitted finalQuery to testWebhook");
+                flowMetrics.submit(true);
+                return result.status(FlowResult.Status.SUBMITTED);
+              })
+              .onErrorResume(ex -> {
+                log.error("Failed to submit finalQuery: {}", ex.getMessage(), ex);
+                flowMetrics.submit(false);
+                return Mono.just(result.status(FlowResult.Status.SUBMIT_FAILED).error(ex.getMessage()));
+              });
+        })
+        .switchIfEmpty(Mono.fromSupplier(() -> {
+          log.warn("No finalQuery produced automatically. Please provide 'finalQuery' in application.properties or paste it here.");
+          return result.status(FlowResult.Status.NO_QUERY);
+        }));
+  }
+
+  /**
+   * Determine which question based on regNo last two digits.
+   */
+  String chooseQuestionUrl(String regNo) {
+    boolean lastTwoDigitsOdd = isRegNoLastTwoDigitsOdd(regNo);
+    String chosenQuestionUrl = lastTwoDigitsOdd ? q1Url : q2Url;
+    log.info("RegNo last two digits odd? {} -> choosing question URL: {}", lastTwoDigitsOdd, chosenQuestionUrl);
+    return chosenQuestionUrl;
+  }
+
+  Mono<GenerateResponse> generateWebhook(Candidate candidate) {
+    Map<String, String> requestBody = Map.of(
+        "name", candidate.getName(),
+        "regNo", candidate.getRegNo(),
+        "email", candidate.getEmail()
+    );
+
+    return transport.generate(generateUrl, requestBody)
+        .retryWhen(retrySpec());
+  }
 
-    // 5. Submit finalQuery to webhook using accessToken as Authorization header
+  Mono<String> submitFinalQuery(String accessToken, String finalQuery) {
+    // Submit finalQuery to webhook using accessToken as Authorization header
     Map<String, String> submitBody = Map.of("finalQuery", finalQuery);
 
-    try {
-      webClient.post()
-          .uri(URI.create(submitUrl))
-          .header(HttpHeaders.AUTHORIZATION, accessToken)
-          .contentType(MediaType.APPLICATION_JSON)
-          .body(BodyInserters.fromValue(submitBody))
-          .retrieve()
-          .bodyToMono(String.class)
-          .timeout(Duration.ofSeconds(20))
-          .block();
-      log.info("Successfully submitted finalQuery to testWebhook");
-    } catch (Exception ex) {
-      log.error("Failed to submit finalQuery: {}", ex.getMessage(), ex);
-    }
+    return transport.submit(submitUrl, accessToken, submitBody)
+        .timeout(Duration.ofSeconds(20))
+        .doOnError(e -> flowMetrics.timeout("submit", e));
   }
 
   private reactor.util.retry.Retry retrySpec() {
     return reactor.util.retry.Retry.backoff(3, Duration.ofSeconds(1))
         .maxBackoff(Duration.ofSeconds(5))
-        .jitter(0.25);
+        .jitter(0.25)
+        .doBeforeRetry(signal -> flowMetrics.retry("generate"));
   }
 
-  private Optional<String> fetchQuestionText(String questionUrl) {
-    if (!StringUtils.hasText(questionUrl)) return Optional.empty();
-    try {
-      // Try to download raw text (many drive links won't allow direct access; user-provided link might)
-      log.info("Attempting to fetch question from URL: {}", questionUrl);
-      String page = webClient.get()
-          .uri(URI.create(questionUrl))
-          .retrieve()
-          .bodyToMono(String.class)
-          .timeout(Duration.ofSeconds(10))
-          .block();
-      if (page != null && page.length() > 20) {
-        return Optional.of(page);
-      } else {
-        log.warn("Fetched page empty or too short");
-      }
-    } catch (Exception e) {
-      log.warn("Error fetching remote question URL: {}", e.getMessage());
-    }
-    return Optional.empty();
-  }
-
-  private Optional<String> fallbackQuestionText() {
-    if (StringUtils.hasText(inlineQuestion)) {
-      return Optional.of(inlineQuestion);
-    }
-    if (StringUtils.hasText(localQuestionFile)) {
-      try {
-        var p = Path.of(localQuestionFile);
-        if (Files.exists(p)) {
-          return Optional.of(String.join("\n", Files.readAllLines(p)));
-        }
-      } catch (Exception e) {
-        log.warn("Error reading local question file: {}", e.getMessage());
-      }
-    }
-    return Optional.empty();
+  Mono<String> questionText(String questionUrl) {
+    return questionSourceRacer.race(questionUrl);
   }
 
-  private boolean isRegNoLastTwoDigitsOdd(String regNo) {
+  static boolean isRegNoLastTwoDigitsOdd(String regNo) {
     if (regNo == null) return true; // default
     // extract digits from end
     String digits = regNo.replaceAll("\\D+", "");
@@ -207,16 +251,11 @@ public class FlowService {
   }
 
   /**
-   * Solve SQL question from plain text.
-   * IMPORTANT: This method is a placeholder for automatic solving logic.
-   * For full guarantee, you should paste the SQL final query here or upload the question
-   * and I will return the optimized final query.
+   * Solve SQL question from plain text with the rule based {@link SqlSolver}, memoized by
+   * normalized question text. Returns null when no template matched; the flow then stops
+   * without submitting.
    */
-  private String solveSqlQuestion(String questionText) {
-    // This method can be extended to parse the question and produce a SQL statement.
-    // For now - attempt to detect "expected final query" if the question contains it;
-    // Otherwise return null and let the user supply the final query.
-    // I'll replace this with a precise solver once you upload the question image/text.
-    return null;
+  String solveSqlQuestion(String questionText) {
+    return solverCache.solve(questionText, sqlSolver::solve).orElse(null);
   }
 }
@@ -0,0 +1,52 @@
+package com.example.bfhs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class Hashes {
+  private Hashes() {
+  }
+
+  static String sha256Hex(String text) {
+    return sha256Hex(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static String sha256Hex(byte[] bytes) {
+    return HexFormat.of().formatHex(digest("SHA-256").digest(bytes));
+  }
+
+  /**
+   * SHA-256 of a file, read in small chunks so large files are not loaded into memory.
+   */
+  static String sha256Hex(Path file) throws IOException {
+    MessageDigest digest = digest("SHA-256");
+    byte[] chunk = new byte[8192];
+    try (InputStream in = Files.newInputStream(file)) {
+      for (int read; (read = in.read(chunk)) > 0; ) {
+        digest.update(chunk, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * 128-bit (MD5) digest, for cache keys only.
+   */
+  static String hash128Hex(String text) {
+    return HexFormat.of().formatHex(digest("MD5").digest(text.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest digest(String algorithm) {
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(algorithm + " not available", e);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Hedged requests: if an attempt has not answered within the observed latency percentile of
+ * recent attempts, a second attempt is started and whichever produces a value first wins; the
+ * other is cancelled. Until enough samples exist a fixed initial delay is used. A primary that
+ * loses to its hedge is recorded with the time it had run when cancelled, so slow attempts still
+ * count towards the percentile.
+ */
+class Hedger {
+  private static final int MIN_SAMPLES = 20;
+
+  private final boolean enabled;
+  private final double percentile;
+  private final Duration initialDelay;
+  private final Duration minDelay;
+  private final LatencyWindow latencies = new LatencyWindow(256);
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder won = new LongAdder();
+
+  Hedger(boolean enabled, double percentile, Duration initialDelay, Duration minDelay) {
+    this.enabled = enabled;
+    this.percentile = percentile;
+    this.initialDelay = initialDelay;
+    this.minDelay = minDelay;
+  }
+
+  private record Attempt<T>(T value, boolean hedge) {
+  }
+
+  <T> Mono<T> hedge(Supplier<Mono<T>> attempt) {
+    if (!enabled) return timed(attempt, false);
+    return Mono.defer(() -> {
+      Sinks.Empty<Void> primaryDone = Sinks.empty();
+      AtomicReference<Throwable> primaryError = new AtomicReference<>();
+      Mono<Attempt<T>> primary = timed(attempt, true)
+          .map(value -> new Attempt<>(value, false))
+          .doOnError(primaryError::set)
+          .doFinally(signal -> primaryDone.tryEmitEmpty());
+      // the hedge only fires while the primary is still outstanding
+      Mono<Attempt<T>> hedge = Mono.delay(hedgeDelay())
+          .takeUntilOther(primaryDone.asMono())
+          .flatMap(tick -> {
+            sent.increment();
+            return timed(attempt, false).map(value -> new Attempt<>(value, true));
+          });
+      return Mono.firstWithValue(primary, hedge)
+          .doOnNext(winner -> {
+            if (winner.hedge()) won.increment();
+          })
+          .map(Attempt::value)
+          .onErrorResume(NoSuchElementException.class, e -> primaryError.get() != null
+              ? Mono.error(primaryError.get())
+              : Mono.empty());
+    });
+  }
+
+  Duration hedgeDelay() {
+    long[] snapshot = latencies.snapshot();
+    if (snapshot.length < MIN_SAMPLES) return initialDelay;
+    Arrays.sort(snapshot);
+    int index = (int) Math.min(snapshot.length - 1, Math.ceil(percentile * snapshot.length) - 1);
+    Duration observed = Duration.ofNanos(snapshot[Math.max(0, index)]);
+    return observed.compareTo(minDelay) < 0 ? minDelay : observed;
+  }
+
+  long sent() {
+    return sent.sum();
+  }
+
+  long won() {
+    return won.sum();
+  }
+
+  /**
+   * @param recordCancelled also record the elapsed time when the attempt is cancelled, a lower
+   *                        bound of what it would have taken
+   */
+  private <T> Mono<T> timed(Supplier<Mono<T>> attempt, boolean recordCancelled) {
+    return Mono.defer(() -> {
+      long started = System.nanoTime();
+      Mono<T> timed = attempt.get().doOnSuccess(value -> {
+        if (value != null) latencies.record(System.nanoTime() - started);
+      });
+      return recordCancelled ? timed.doOnCancel(() -> latencies.record(System.nanoTime() - started)) : timed;
+    });
+  }
+
+  /**
+   * Fixed-size ring of the most recent latencies, in nanos.
+   */
+  static final class LatencyWindow {
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+      this.samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+      samples[next] = nanos;
+      next = (next + 1) % samples.length;
+      size = Math.min(size + 1, samples.length);
+    }
+
+    synchronized long[] snapshot() {
+      return Arrays.copyOf(samples, size);
+    }
+  }
+}
@@ -0,0 +1,263 @@
+package com.example.bfhs;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Incremental HTML to text converter for question pages such as Drive share links. Characters are
+ * pushed through a small state machine as they arrive, so chunk boundaries may fall anywhere, even
+ * inside a tag or an entity. Script, style and similar raw-text elements are skipped, block elements
+ * become line breaks (the schema extractor is line based), and {@code <title>} plus {@code <meta>}
+ * content is collected separately. Not thread safe; use one instance per document.
+ */
+final class HtmlTextExtractor {
+  private static final Set<String> SKIPPED = Set.of("script", "style", "noscript", "template", "svg", "textarea");
+  private static final Set<String> BLOCK = Set.of("address", "article", "blockquote", "br", "dd", "div", "dl", "dt",
+      "footer", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "li", "ol", "p", "pre", "section", "table",
+      "tr", "ul");
+  private static final Set<String> CELL = Set.of("td", "th");
+  private static final Map<String, String> ENTITIES = Map.of(
+      "amp", "&", "lt", "<", "gt", ">", "quot", "\"", "apos", "'", "nbsp", " ");
+  private static final Pattern ATTRIBUTE =
+      Pattern.compile("([\\w:.-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s\"'>]+))");
+  private static final int MAX_TAG = 8192;
+  private static final int MAX_ENTITY = 10;
+
+  private enum State { TEXT, TAG, ENTITY, COMMENT, SKIP }
+
+  /**
+   * Visible text, the page title and {@code <meta>} content keyed by property, name or itemprop.
+   */
+  record Result(String text, String title, Map<String, String> metadata) {
+  }
+
+  private final StringBuilder text = new StringBuilder();
+  private final StringBuilder title = new StringBuilder();
+  private final Map<String, String> metadata = new LinkedHashMap<>();
+  private final StringBuilder tag = new StringBuilder();
+  private final StringBuilder entity = new StringBuilder();
+
+  private State state = State.TEXT;
+  private String skipUntil;
+  private int skipMatched;
+  private int commentDashes;
+  private int preDepth;
+  private boolean inTitle;
+  private boolean pendingSpace;
+  private int pendingNewlines;
+
+  /**
+   * Extracts text from a stream of decoded chunks, e.g. {@link StreamingBodies#decode}.
+   */
+  static Mono<Result> extract(Flux<String> chunks) {
+    return Mono.defer(() -> {
+      HtmlTextExtractor extractor = new HtmlTextExtractor();
+      return chunks.doOnNext(extractor::feed).then(Mono.fromSupplier(extractor::finish));
+    });
+  }
+
+  static Result extract(String html) {
+    HtmlTextExtractor extractor = new HtmlTextExtractor();
+    extractor.feed(html);
+    return extractor.finish();
+  }
+
+  static boolean looksLikeHtml(String contentType, String firstChunk) {
+    if (contentType != null) {
+      String type = contentType.toLowerCase(Locale.ROOT);
+      if (type.contains("html")) return true;
+      if (type.startsWith("text/plain")) return false;
+    }
+    String start = firstChunk.stripLeading().toLowerCase(Locale.ROOT);
+    return start.startsWith("<!doctype html") || start.startsWith("<html");
+  }
+
+  void feed(CharSequence chunk) {
+    for (int i = 0; i < chunk.length(); i++) {
+      accept(chunk.charAt(i));
+    }
+  }
+
+  Result finish() {
+    if (state == State.ENTITY) {
+      emitLiteral("&" + entity);
+    }
+    state = State.TEXT;
+    String cleanTitle = title.toString().replaceAll("\\s+", " ").trim();
+    return new Result(text.toString(), cleanTitle, Collections.unmodifiableMap(metadata));
+  }
+
+  private void accept(char c) {
+    switch (state) {
+      case TEXT -> {
+        if (c == '<') {
+          state = State.TAG;
+          tag.setLength(0);
+        } else if (c == '&') {
+          state = State.ENTITY;
+          entity.setLength(0);
+        } else {
+          emit(c);
+        }
+      }
+      case TAG -> {
+        if (tag.isEmpty() && !(Character.isLetter(c) || c == '/' || c == '!' || c == '?')) {
+          // a bare '<' in text, not a tag
+          state = State.TEXT;
+          emit('<');
+          accept(c);
+        } else if (c == '>') {
+          state = State.TEXT;
+          endTag();
+        } else if (tag.length() < MAX_TAG) {
+          tag.append(c);
+          if (tag.length() == 3 && "!--".contentEquals(tag)) {
+            state = State.COMMENT;
+            commentDashes = 0;
+          }
+        }
+      }
+      case ENTITY -> {
+        if (c == ';') {
+          state = State.TEXT;
+          emitEntity();
+        } else if (entity.length() < MAX_ENTITY && (Character.isLetterOrDigit(c) || c == '#')) {
+          entity.append(c);
+        } else {
+          state = State.TEXT;
+          emitLiteral("&" + entity);
+          accept(c);
+        }
+      }
+      case COMMENT -> {
+        if (c == '>' && commentDashes >= 2) {
+          state = State.TEXT;
+        }
+        commentDashes = c == '-' ? commentDashes + 1 : 0;
+      }
+      case SKIP -> {
+        char lower = Character.toLowerCase(c);
+        if (lower == skipUntil.charAt(skipMatched)) {
+          if (++skipMatched == skipUntil.length()) {
+            // consume the rest of the closing tag as a normal tag
+            state = State.TAG;
+            tag.setLength(0);
+            tag.append(skipUntil, 1, skipUntil.length());
+          }
+        } else {
+          skipMatched = lower == '<' ? 1 : 0;
+        }
+      }
+    }
+  }
+
+  private void endTag() {
+    boolean closing = tag.charAt(0) == '/';
+    int start = closing ? 1 : 0;
+    int end = start;
+    while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && tag.charAt(end) != '/') {
+      end++;
+    }
+    String name = tag.substring(start, end).toLowerCase(Locale.ROOT);
+    if (name.isEmpty() || name.startsWith("!") || name.startsWith("?")) return;
+
+    if (!closing && SKIPPED.contains(name) && tag.charAt(tag.length() - 1) != '/') {
+      state = State.SKIP;
+      skipUntil = "</" + name;
+      skipMatched = 0;
+      return;
+    }
+    switch (name) {
+      case "title" -> inTitle = !closing;
+      case "meta" -> readMeta(tag);
+      case "pre" -> preDepth = Math.max(0, preDepth + (closing ? -1 : 1));
+      default -> {
+      }
+    }
+    if (BLOCK.contains(name)) {
+      pendingNewlines = Math.min(pendingNewlines + 1, 2);
+    } else if (CELL.contains(name)) {
+      pendingSpace = true;
+    }
+  }
+
+  private void readMeta(CharSequence tagText) {
+    String key = null;
+    String content = null;
+    Matcher attribute = ATTRIBUTE.matcher(tagText);
+    while (attribute.find()) {
+      String attributeName = attribute.group(1).toLowerCase(Locale.ROOT);
+      String value = attribute.group(2) != null ? attribute.group(2)
+          : attribute.group(3) != null ? attribute.group(3) : attribute.group(4);
+      switch (attributeName) {
+        case "property", "name", "itemprop" -> key = value;
+        case "content" -> content = value;
+        default -> {
+        }
+      }
+    }
+    if (key != null && content != null) {
+      metadata.putIfAbsent(key, extract(content).text());
+    }
+  }
+
+  private void emitEntity() {
+    String name = entity.toString();
+    if (name.startsWith("#")) {
+      try {
+        int codePoint = name.length() > 1 && (name.charAt(1) == 'x' || name.charAt(1) == 'X')
+            ? Integer.parseInt(name.substring(2), 16)
+            : Integer.parseInt(name.substring(1));
+        if (Character.isValidCodePoint(codePoint)) {
+          emitLiteral(new String(Character.toChars(codePoint)));
+          return;
+        }
+      } catch (NumberFormatException e) {
+        // fall through and keep the text as written
+      }
+    } else if (ENTITIES.containsKey(name)) {
+      emitLiteral(ENTITIES.get(name));
+      return;
+    }
+    emitLiteral("&" + name + ";");
+  }
+
+  private void emitLiteral(String literal) {
+    for (int i = 0; i < literal.length(); i++) {
+      emit(literal.charAt(i));
+    }
+  }
+
+  private void emit(char c) {
+    if (inTitle) {
+      title.append(c);
+      return;
+    }
+    if (c == '\n' && preDepth > 0) {
+      pendingNewlines = Math.min(pendingNewlines + 1, 2);
+      return;
+    }
+    if (Character.isWhitespace(c) || c == '\u00a0') {
+      pendingSpace = true;
+      return;
+    }
+    if (!text.isEmpty()) {
+      if (pendingNewlines > 0) {
+        text.append(pendingNewlines > 1 ? "\n\n" : "\n");
+      } else if (pendingSpace) {
+        text.append(' ');
+      }
+    }
+    pendingNewlines = 0;
+    pendingSpace = false;
+    text.append(c);
+  }
+}
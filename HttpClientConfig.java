@@ -0,0 +1,58 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Shared Reactor Netty client for every {@code WebClient} in the app. Pools are kept per remote
+ * host; with metrics enabled the pool publishes {@code reactor.netty.connection.provider.*}
+ * gauges (active, idle, pending, total connections) to the Micrometer registry.
+ */
+@Configuration
+public class HttpClientConfig {
+
+  @Bean(destroyMethod = "dispose")
+  ConnectionProvider bfhConnectionProvider(
+      @Value("${bfh.http.pool.max-connections:64}") int maxConnections,
+      @Value("${bfh.http.pool.pending-acquire-max-count:1024}") int pendingAcquireMaxCount,
+      @Value("${bfh.http.pool.pending-acquire-timeout:PT10S}") Duration pendingAcquireTimeout,
+      @Value("${bfh.http.pool.max-idle-time:PT30S}") Duration maxIdleTime,
+      @Value("${bfh.http.pool.evict-in-background:PT30S}") Duration evictInBackground) {
+    return ConnectionProvider.builder("bfh")
+        .maxConnections(maxConnections)
+        .pendingAcquireMaxCount(pendingAcquireMaxCount)
+        .pendingAcquireTimeout(pendingAcquireTimeout)
+        .maxIdleTime(maxIdleTime)
+        .evictInBackground(evictInBackground)
+        .metrics(true)
+        .build();
+  }
+
+  /**
+   * {@code bfh.http.protocols} selects HTTP/1.1 ({@code http11}), HTTP/2 over TLS negotiated via
+   * ALPN ({@code h2}) and/or cleartext HTTP/2 ({@code h2c}, e.g. for the local stub). With HTTP/2,
+   * concurrent flows multiplex as streams over a few connections instead of one each.
+   */
+  @Bean
+  HttpClient bfhHttpClient(ConnectionProvider bfhConnectionProvider,
+                           @Value("${bfh.http.protocols:http11}") HttpProtocol[] protocols) {
+    return HttpClient.create(bfhConnectionProvider)
+        .protocol(protocols);
+  }
+
+  /**
+   * Picked up by Spring Boot's WebClient auto-configuration in place of its default connector.
+   */
+  @Bean
+  ReactorClientHttpConnector bfhClientHttpConnector(HttpClient bfhHttpClient) {
+    return new ReactorClientHttpConnector(bfhHttpClient);
+  }
+}
@@ -0,0 +1,29 @@
+package com.example.bfhs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Question text pasted into {@code bfh.inline.question}.
+ */
+@Component
+public class InlineQuestionSource implements QuestionSource {
+  private final String inlineQuestion;
+
+  public InlineQuestionSource(@Value("${bfh.inline.question:}") String inlineQuestion) {
+    this.inlineQuestion = inlineQuestion;
+  }
+
+  @Override
+  public String name() {
+    return "inline";
+  }
+
+  @Override
+  public Mono<String> fetch(String questionUrl) {
+    return StringUtils.hasText(inlineQuestion) ? Mono.just(inlineQuestion) : Mono.empty();
+  }
+}
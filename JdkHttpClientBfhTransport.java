@@ -0,0 +1,130 @@
+package com.example.bfhs;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transport on {@link java.net.http.HttpClient}, negotiating HTTP/2 where the server supports it
+ * and running client callbacks on virtual threads (Java 21+).
+ */
+@Component
+@ConditionalOnProperty(name = "bfh.transport", havingValue = "jdk")
+public class JdkHttpClientBfhTransport implements BfhTransport {
+  private final ObjectMapper objectMapper;
+  private final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+  private final HttpClient httpClient;
+
+  public JdkHttpClientBfhTransport(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .connectTimeout(Duration.ofSeconds(10))
+        .executor(executor)
+        .build();
+  }
+
+  @Override
+  public Mono<GenerateResponse> generate(String url, Map<String, String> body) {
+    return Mono.fromCallable(() -> jsonPost(url, body).build())
+        .flatMap(request -> send(request, HttpResponse.BodyHandlers.ofByteArray()))
+        .map(response -> checkStatus(response, response.body()))
+        // an empty 2xx body completes empty, as bodyToMono does on the WebClient transport
+        .filter(bytes -> bytes.length > 0)
+        .flatMap(bytes -> Mono.fromCallable(() -> objectMapper.readValue(bytes, GenerateResponse.class)));
+  }
+
+  @Override
+  public Mono<ResponseEntity<Flux<DataBuffer>>> fetch(String url, HttpHeaders headers) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+    headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+    return send(request.build(), HttpResponse.BodyHandlers.ofPublisher())
+        .flatMap(response -> {
+          Flux<DataBuffer> body = toFlux(response.body());
+          HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+          if (status.isError()) {
+            return body.then(Mono.error(responseException(response, new byte[0])));
+          }
+          return Mono.just(ResponseEntity.status(status).headers(toHeaders(response)).body(body));
+        });
+  }
+
+  @Override
+  public Mono<String> submit(String url, String accessToken, Map<String, String> body) {
+    return Mono.fromCallable(() -> {
+          HttpRequest.Builder request = jsonPost(url, body);
+          if (accessToken != null) request.header(HttpHeaders.AUTHORIZATION, accessToken);
+          return request.build();
+        })
+        .flatMap(request -> send(request, HttpResponse.BodyHandlers.ofByteArray()))
+        .map(response -> new String(checkStatus(response, response.body()), StandardCharsets.UTF_8));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private HttpRequest.Builder jsonPost(String url, Object body) throws Exception {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+  }
+
+  private <T> Mono<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+    // cancelling the Mono cancels the exchange
+    return Mono.fromFuture(() -> httpClient.sendAsync(request, bodyHandler));
+  }
+
+  private static Flux<DataBuffer> toFlux(Flow.Publisher<List<ByteBuffer>> body) {
+    return JdkFlowAdapter.flowPublisherToFlux(body)
+        .flatMapIterable(buffers -> buffers)
+        .map(DefaultDataBufferFactory.sharedInstance::wrap);
+  }
+
+  private static byte[] checkStatus(HttpResponse<?> response, byte[] body) {
+    if (HttpStatusCode.valueOf(response.statusCode()).isError()) {
+      throw responseException(response, body);
+    }
+    return body;
+  }
+
+  private static WebClientResponseException responseException(HttpResponse<?> response, byte[] body) {
+    return WebClientResponseException.create(response.statusCode(), "HTTP " + response.statusCode(),
+        toHeaders(response), body, StandardCharsets.UTF_8);
+  }
+
+  private static HttpHeaders toHeaders(HttpResponse<?> response) {
+    HttpHeaders headers = new HttpHeaders();
+    response.headers().map().forEach((name, values) -> {
+      if (!name.startsWith(":")) headers.addAll(name, values); // skip HTTP/2 pseudo headers
+    });
+    return headers;
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.bfhs;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Question text from the file at {@code bfh.local.question-file}.
+ */
+@Component
+public class LocalFileQuestionSource implements QuestionSource {
+  private final Logger log = LoggerFactory.getLogger(LocalFileQuestionSource.class);
+
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private final String localQuestionFile;
+
+  public LocalFileQuestionSource(@Value("${bfh.local.question-file:}") String localQuestionFile) {
+    this.localQuestionFile = localQuestionFile;
+  }
+
+  @Override
+  public String name() {
+    return "local-file";
+  }
+
+  @Override
+  public Mono<String> fetch(String questionUrl) {
+    if (!StringUtils.hasText(localQuestionFile)) return Mono.empty();
+    return read(Path.of(localQuestionFile))
+        .onErrorResume(NoSuchFileException.class, e -> Mono.empty())
+        .onErrorResume(e -> {
+          log.warn("Error reading local question file: {}", e.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  /**
+   * Reads the file through an {@link java.nio.channels.AsynchronousFileChannel} in 64 KiB chunks and
+   * decodes each chunk straight into the result, so no thread blocks on the read and the file is
+   * never held as both bytes and text. Line endings come out as {@code \n} without a trailing one,
+   * the same text {@code readAllLines} joined with {@code \n} used to give.
+   */
+  static Mono<String> read(Path file) {
+    Flux<DataBuffer> chunks = DataBufferUtils.read(file, DefaultDataBufferFactory.sharedInstance, CHUNK_SIZE);
+    return StreamingBodies.decode(chunks, StandardCharsets.UTF_8)
+        .collect(StringBuilder::new, StringBuilder::append)
+        .map(LocalFileQuestionSource::normalizeLineEndings);
+  }
+
+  private static String normalizeLineEndings(CharSequence text) {
+    String lines = text.toString().replace("\r\n", "\n").replace('\r', '\n');
+    return lines.endsWith("\n") ? lines.substring(0, lines.length() - 1) : lines;
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.bfhs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Text extraction for question documents served as PDF. The body is streamed to a temp file and
+ * PDFBox reads it from there with a temp-file scratch cache, so heap use does not grow with the
+ * document size; text comes out one page at a time. Extracted text is cached by the SHA-256 of
+ * the PDF, in memory and under {@code bfh.pdf.cache-dir}.
+ */
+@Component
+public class PdfTextExtractor {
+  private final Logger log = LoggerFactory.getLogger(PdfTextExtractor.class);
+
+  private static final byte[] MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+  /**
+   * Bytes {@link #isPdf} needs to see; see {@link StreamingBodies#joinLeading}.
+   */
+  static final int HEADER_LENGTH = MAGIC.length;
+
+  private final Cache<String, String> memory;
+  private final Path dir;
+
+  public PdfTextExtractor(@Value("${bfh.pdf.cache-dir:.bfh-cache/pdf-text}") String dir,
+                          @Value("${bfh.pdf.max-entries:64}") int maxEntries) {
+    this.memory = Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .build();
+    this.dir = StringUtils.hasText(dir) ? Path.of(dir) : null; // empty dir -> memory only
+  }
+
+  /**
+   * Whether the buffer starts with the PDF header. Does not move the read position. A first buffer
+   * shorter than {@link #HEADER_LENGTH} is not a PDF, so join small leading buffers first.
+   */
+  static boolean isPdf(DataBuffer first) {
+    if (first.readableByteCount() < MAGIC.length) return false;
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (first.getByte(first.readPosition() + i) != MAGIC[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Streams {@code body} to a temp file and returns the text of all pages, from cache when the
+   * same document was extracted before. The temp file is deleted afterwards.
+   */
+  public Mono<String> extract(Flux<DataBuffer> body) {
+    return Mono.usingWhen(
+        Mono.fromCallable(() -> Files.createTempFile("bfh-question-", ".pdf"))
+            .subscribeOn(Schedulers.boundedElastic()),
+        file -> StreamingBodies.writeTo(body, file)
+            .publishOn(Schedulers.boundedElastic())
+            .map(PdfTextExtractor::hash)
+            .flatMap(hash -> cached(hash)
+                .map(Mono::just)
+                .orElseGet(() -> pages(file)
+                    .collect(Collectors.joining("\n"))
+                    .doOnNext(text -> store(hash, text)))),
+        file -> Mono.fromRunnable(() -> delete(file))
+            .subscribeOn(Schedulers.boundedElastic()));
+  }
+
+  /**
+   * Text of each page in order, extracted lazily as the subscriber requests it.
+   */
+  public Flux<String> pages(Path pdf) {
+    return Flux.using(
+            () -> Loader.loadPDF(pdf.toFile(), IOUtils.createTempFileOnlyStreamCache()),
+            document -> Flux.range(1, document.getNumberOfPages())
+                .map(page -> pageText(document, page)),
+            PdfTextExtractor::close)
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private static String pageText(PDDocument document, int page) {
+    try {
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(page);
+      stripper.setEndPage(page);
+      return stripper.getText(document);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error extracting text from PDF page " + page, e);
+    }
+  }
+
+  private Optional<String> cached(String hash) {
+    String text = memory.getIfPresent(hash);
+    if (text != null || dir == null) return Optional.ofNullable(text);
+    Path file = dir.resolve(hash + ".txt");
+    if (!Files.exists(file)) return Optional.empty();
+    try {
+      text = Files.readString(file, StandardCharsets.UTF_8);
+      memory.put(hash, text);
+      log.info("Using cached text for PDF {}", hash);
+      return Optional.of(text);
+    } catch (IOException e) {
+      log.warn("Error reading cached PDF text {}: {}", file, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private void store(String hash, String text) {
+    memory.put(hash, text);
+    if (dir == null) return;
+    try {
+      Files.createDirectories(dir);
+      Path tmp = Files.createTempFile(dir, hash, ".tmp");
+      Files.writeString(tmp, text, StandardCharsets.UTF_8);
+      Files.move(tmp, dir.resolve(hash + ".txt"), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      log.warn("Error caching PDF text {}: {}", hash, e.getMessage());
+    }
+  }
+
+  private static String hash(Path file) {
+    try {
+      return Hashes.sha256Hex(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Error deleting temp file {}: {}", file, e.getMessage());
+    }
+  }
+
+  private static void close(PDDocument document) {
+    try {
+      document.close();
+    } catch (IOException e) {
+      // nothing left to do with it
+    }
+  }
+}
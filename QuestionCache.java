@@ -0,0 +1,138 @@
+package com.example.bfhs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Two-level cache for question pages: an in-memory LRU in front of a content-addressed
+ * directory ({@code objects/<sha256>} for text, {@code index/<sha256(url)>.json} for metadata).
+ * Disk methods block, so callers on the event loop should only use {@link #getFresh(String)}.
+ */
+@Component
+public class QuestionCache {
+  private final Logger log = LoggerFactory.getLogger(QuestionCache.class);
+
+  private final ObjectMapper objectMapper;
+  private final Cache<String, CachedQuestion> memory;
+  private final Path dir;
+  private final Duration ttl;
+
+  public QuestionCache(ObjectMapper objectMapper,
+                       @Value("${bfh.question-cache.dir:.bfh-cache/questions}") String dir,
+                       @Value("${bfh.question-cache.ttl:PT1H}") Duration ttl,
+                       @Value("${bfh.question-cache.max-entries:256}") int maxEntries) {
+    this.objectMapper = objectMapper;
+    this.memory = Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .build();
+    this.dir = StringUtils.hasText(dir) ? Path.of(dir) : null; // empty dir -> memory only
+    this.ttl = ttl;
+  }
+
+  /**
+   * Memory-only lookup that never blocks; empty if absent or stale.
+   */
+  public Optional<CachedQuestion> getFresh(String url) {
+    return Optional.ofNullable(memory.getIfPresent(url)).filter(this::isFresh);
+  }
+
+  /**
+   * Looks the url up in memory, then on disk. Stale entries are returned too so they can be revalidated.
+   */
+  public Optional<CachedQuestion> load(String url) {
+    CachedQuestion cached = memory.getIfPresent(url);
+    if (cached != null) return Optional.of(cached);
+    if (dir == null) return Optional.empty();
+    try {
+      Path index = indexFile(url);
+      if (!Files.exists(index)) return Optional.empty();
+      CachedQuestion entry = objectMapper.readValue(index.toFile(), CachedQuestion.class);
+      Path object = objectFile(entry.getContentHash());
+      if (!Files.exists(object)) return Optional.empty();
+      entry.setText(Files.readString(object, StandardCharsets.UTF_8));
+      memory.put(url, entry);
+      return Optional.of(entry);
+    } catch (IOException e) {
+      log.warn("Error reading question cache entry for {}: {}", url, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  public CachedQuestion put(String url, String text, String etag, String lastModified) {
+    CachedQuestion entry = new CachedQuestion();
+    entry.setUrl(url);
+    entry.setContentHash(Hashes.sha256Hex(text));
+    entry.setFetchedAt(System.currentTimeMillis());
+    entry.setEtag(etag);
+    entry.setLastModified(lastModified);
+    entry.setText(text);
+    memory.put(url, entry);
+    if (dir != null) {
+      try {
+        Path object = objectFile(entry.getContentHash());
+        if (!Files.exists(object)) {
+          writeAtomically(object, text.getBytes(StandardCharsets.UTF_8));
+        }
+        writeIndex(entry);
+      } catch (IOException e) {
+        log.warn("Error writing question cache entry for {}: {}", url, e.getMessage());
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Returns a fresh copy of a stale entry after the server answered 304 Not Modified and caches
+   * it in place of the old one. Writes the index, so call it off the event loop.
+   */
+  public CachedQuestion revalidated(CachedQuestion stale) {
+    CachedQuestion entry = stale.fetchedAgainAt(System.currentTimeMillis());
+    memory.put(entry.getUrl(), entry);
+    if (dir != null) {
+      try {
+        writeIndex(entry);
+      } catch (IOException e) {
+        log.warn("Error updating question cache entry for {}: {}", entry.getUrl(), e.getMessage());
+      }
+    }
+    return entry;
+  }
+
+  public boolean isFresh(CachedQuestion entry) {
+    return System.currentTimeMillis() - entry.getFetchedAt() < ttl.toMillis();
+  }
+
+  private void writeIndex(CachedQuestion entry) throws IOException {
+    writeAtomically(indexFile(entry.getUrl()), objectMapper.writeValueAsBytes(entry));
+  }
+
+  private void writeAtomically(Path target, byte[] bytes) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    Files.write(tmp, bytes);
+    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private Path indexFile(String url) {
+    return dir.resolve("index").resolve(Hashes.sha256Hex(url) + ".json");
+  }
+
+  private Path objectFile(String contentHash) {
+    return dir.resolve("objects").resolve(contentHash);
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.bfhs;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Keyword based classification of question text into a {@link QuestionKind}. Rules are checked
+ * from most to least specific.
+ */
+public class QuestionClassifier {
+  private static final Pattern YOUNGER = Pattern.compile("\\b(younger|older)\\b");
+  private static final Pattern COUNT = Pattern.compile("\\b(count|number of|how many)\\b");
+  private static final Pattern HIGHEST = Pattern.compile("\\b(highest|maximum|max|largest|top)\\b");
+  private static final Pattern AMOUNT = Pattern.compile("\\b(salary|salaries|amount|payment|payments)\\b");
+  private static final Pattern GROUPED = Pattern.compile("\\b(each|per|grouped by|group by)\\b");
+
+  public QuestionKind classify(String questionText) {
+    if (questionText == null) return QuestionKind.UNKNOWN;
+    String text = questionText.toLowerCase(Locale.ROOT);
+    if (YOUNGER.matcher(text).find() && COUNT.matcher(text).find()) {
+      return QuestionKind.YOUNGER_COUNT_PER_GROUP;
+    }
+    if (HIGHEST.matcher(text).find() && AMOUNT.matcher(text).find()) {
+      return QuestionKind.HIGHEST_AMOUNT_WITH_DETAILS;
+    }
+    if (COUNT.matcher(text).find() && GROUPED.matcher(text).find()) {
+      return QuestionKind.COUNT_PER_GROUP;
+    }
+    return QuestionKind.UNKNOWN;
+  }
+}
@@ -0,0 +1,262 @@
+package com.example.bfhs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Watch mode: question files dropped into {@code bfh.watch.dir} are solved and submitted for the
+ * configured candidate. Events for a file are debounced until it has been quiet for
+ * {@code bfh.watch.settle}, then handed to a fixed pool of workers with a bounded queue; when the
+ * queue is full the file simply stays pending until a later tick. Processed files are recorded by
+ * content hash in {@code bfh.watch.processed-file}, so neither a restart nor a touch without a
+ * content change submits them again; a hash is claimed before its flow starts, so two copies of
+ * the same file in flight at once are submitted only once. Files whose flow ends with a retryable
+ * status (no webhook, failed submit or flow) are not retried on their own: touch the file or
+ * restart the app to try again. Text, HTML and PDF files are understood.
+ */
+@Component
+@ConditionalOnProperty(name = "bfh.watch.enabled")
+public class QuestionDirectoryWatcher {
+  private final Logger log = LoggerFactory.getLogger(QuestionDirectoryWatcher.class);
+
+  private static final String IN_PROGRESS = "in-progress";
+  private static final Set<FlowResult.Status> RETRYABLE = Set.of(
+      FlowResult.Status.NO_WEBHOOK, FlowResult.Status.SUBMIT_FAILED, FlowResult.Status.FAILED);
+
+  private final FlowService flowService;
+  private final PdfTextExtractor pdfText;
+  private final Path dir;
+  private final PathMatcher matcher;
+  private final Duration settle;
+  private final Path processedFile;
+  private final ThreadPoolExecutor workers;
+
+  private final Map<String, String> processed = new ConcurrentHashMap<>();
+  private final Map<Path, Long> pending = new LinkedHashMap<>();
+  private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+  private WatchService watchService;
+  private Thread watchThread;
+  private BufferedWriter processedWriter;
+
+  public QuestionDirectoryWatcher(FlowService flowService,
+                                  PdfTextExtractor pdfText,
+                                  @Value("${bfh.watch.dir:questions}") String dir,
+                                  @Value("${bfh.watch.glob:*.{txt,md,html,htm,pdf}}") String glob,
+                                  @Value("${bfh.watch.settle:PT0.5S}") Duration settle,
+                                  @Value("${bfh.watch.workers:2}") int workers,
+                                  @Value("${bfh.watch.queue-capacity:32}") int queueCapacity,
+                                  @Value("${bfh.watch.processed-file:.bfh-cache/watch-processed.tsv}") String processedFile) {
+    this.flowService = flowService;
+    this.pdfText = pdfText;
+    this.dir = Path.of(dir).toAbsolutePath();
+    this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    this.settle = settle;
+    this.processedFile = StringUtils.hasText(processedFile) ? Path.of(processedFile) : null;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        task -> new Thread(task, "bfh-watch-worker-" + threadNumber.incrementAndGet()),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PostConstruct
+  void start() throws IOException {
+    loadProcessed();
+    Files.createDirectories(dir);
+    watchService = dir.getFileSystem().newWatchService();
+    dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    // files that arrived while we were not running
+    scan();
+    // not a daemon thread: in watch mode this is what keeps the JVM running
+    watchThread = new Thread(this::watch, "bfh-watch");
+    watchThread.start();
+    log.info("Watching {} for question files ({} already processed)", dir, processed.size());
+  }
+
+  @PreDestroy
+  void stop() throws IOException, InterruptedException {
+    if (watchThread != null) watchThread.interrupt();
+    if (watchService != null) watchService.close();
+    workers.shutdown();
+    if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+      log.warn("Watch workers still busy after 30s, abandoning {} queued file(s)", workers.getQueue().size());
+      workers.shutdownNow();
+    }
+    synchronized (this) {
+      if (processedWriter != null) processedWriter.close();
+      processedWriter = null;
+    }
+  }
+
+  private void watch() {
+    long tickMillis = Math.max(50, settle.toMillis() / 2);
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watchService.poll(tickMillis, TimeUnit.MILLISECONDS);
+        if (key != null) {
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+              log.warn("Watch events overflowed, rescanning {}", dir);
+              scan();
+            } else {
+              changed(dir.resolve((Path) event.context()));
+            }
+          }
+          key.reset();
+        }
+        dispatchSettled();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // shutting down
+    }
+  }
+
+  private void scan() {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+      files.forEach(this::changed);
+    } catch (IOException e) {
+      log.warn("Error listing {}: {}", dir, e.getMessage());
+    }
+  }
+
+  private void changed(Path file) {
+    if (!matcher.matches(file.getFileName())) return;
+    pending.put(file, System.nanoTime());
+  }
+
+  private void dispatchSettled() {
+    long settledBefore = System.nanoTime() - settle.toNanos();
+    Iterator<Map.Entry<Path, Long>> entries = pending.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<Path, Long> entry = entries.next();
+      Path file = entry.getKey();
+      // a file still being written, or one already waiting for a worker, is left for a later tick
+      if (entry.getValue() > settledBefore || queued.contains(file)) continue;
+      try {
+        queued.add(file);
+        workers.execute(() -> {
+          try {
+            process(file);
+          } finally {
+            queued.remove(file);
+          }
+        });
+        entries.remove();
+      } catch (RejectedExecutionException e) {
+        queued.remove(file);
+        return; // queue full, retry on the next tick
+      }
+    }
+  }
+
+  private void process(Path file) {
+    String hash;
+    try {
+      if (!Files.isRegularFile(file)) return;
+      hash = Hashes.sha256Hex(file);
+    } catch (IOException e) {
+      log.warn("Error reading question file {}: {}", file, e.getMessage());
+      return;
+    }
+    String previous = processed.putIfAbsent(hash, IN_PROGRESS);
+    if (previous != null) {
+      log.debug("Skipping {}, already processed as {}", file, previous);
+      return;
+    }
+    boolean done = false;
+    try {
+      FlowResult result = flowService.executeFlowReactive(flowService.configuredCandidate(),
+              file.toUri().toString(), questionText(file))
+          .block();
+      if (result == null) return;
+      log.info("Question file {} finished with status {}", file.getFileName(), result.getStatus());
+      if (!RETRYABLE.contains(result.getStatus())) {
+        markProcessed(hash, file, result.getStatus());
+        done = true;
+      }
+    } catch (RuntimeException e) {
+      log.error("Processing question file {} failed: {}", file, e.getMessage(), e);
+    } finally {
+      // release the claim so a later touch or copy can try again
+      if (!done) processed.remove(hash, IN_PROGRESS);
+    }
+  }
+
+  private Mono<String> questionText(Path file) {
+    String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+    if (name.endsWith(".pdf")) {
+      return pdfText.pages(file).collect(Collectors.joining("\n"));
+    }
+    Mono<String> text = LocalFileQuestionSource.read(file);
+    if (name.endsWith(".html") || name.endsWith(".htm")) {
+      return text.map(html -> HtmlTextExtractor.extract(html).text());
+    }
+    return text;
+  }
+
+  private void loadProcessed() {
+    if (processedFile == null || !Files.exists(processedFile)) return;
+    try {
+      for (String line : Files.readAllLines(processedFile, StandardCharsets.UTF_8)) {
+        int tab = line.indexOf('\t');
+        if (tab > 0) processed.put(line.substring(0, tab), line.substring(tab + 1));
+      }
+    } catch (IOException e) {
+      log.warn("Error loading processed files from {}: {}", processedFile, e.getMessage());
+    }
+  }
+
+  private synchronized void markProcessed(String hash, Path file, FlowResult.Status status) {
+    String entry = file.getFileName() + "\t" + status;
+    processed.put(hash, entry);
+    if (processedFile == null) return;
+    try {
+      if (processedWriter == null) {
+        if (processedFile.getParent() != null) Files.createDirectories(processedFile.getParent());
+        processedWriter = Files.newBufferedWriter(processedFile, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+      processedWriter.write(hash + '\t' + entry);
+      processedWriter.newLine();
+      processedWriter.flush();
+    } catch (IOException e) {
+      log.warn("Error writing processed files to {}: {}", processedFile, e.getMessage());
+    }
+  }
+}
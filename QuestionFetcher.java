@@ -0,0 +1,227 @@
+package com.example.bfhs;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Downloads question pages through {@link QuestionCache}: fresh entries are served locally,
+ * stale ones are revalidated with If-None-Match / If-Modified-Since. Concurrent fetches of the
+ * same URL that miss the in-memory cache share a single request, and a slow request is hedged
+ * with a second one once it exceeds the observed p95 (see {@link Hedger}). Bodies are decoded as
+ * they stream in and capped at {@code bfh.question.max-bytes}; HTML pages are reduced to their
+ * visible text by {@link HtmlTextExtractor} and PDFs go through {@link PdfTextExtractor} before
+ * being cached. Drive share links are fetched through {@link DriveLinkResolver}.
+ */
+@Component
+public class QuestionFetcher {
+  private final Logger log = LoggerFactory.getLogger(QuestionFetcher.class);
+
+  private final DriveLinkResolver driveLinks;
+  private final PdfTextExtractor pdfText;
+  private final QuestionCache cache;
+  private final SingleFlight<String, String> inFlight = new SingleFlight<>();
+
+  private final FlowMetrics flowMetrics;
+  private final Hedger hedger;
+  private final long maxBytes;
+
+  public QuestionFetcher(DriveLinkResolver driveLinks,
+                         PdfTextExtractor pdfText,
+                         QuestionCache cache,
+                         FlowMetrics flowMetrics,
+                         @Value("${bfh.question.hedge.enabled:true}") boolean hedgeEnabled,
+                         @Value("${bfh.question.hedge.percentile:0.95}") double hedgePercentile,
+                         @Value("${bfh.question.hedge.initial-delay:PT2S}") Duration hedgeInitialDelay,
+                         @Value("${bfh.question.hedge.min-delay:PT0.05S}") Duration hedgeMinDelay,
+                         @Value("${bfh.question.max-bytes:5MB}") DataSize maxBytes) {
+    this.driveLinks = driveLinks;
+    this.pdfText = pdfText;
+    this.cache = cache;
+    this.flowMetrics = flowMetrics;
+    this.hedger = new Hedger(hedgeEnabled, hedgePercentile, hedgeInitialDelay, hedgeMinDelay);
+    this.maxBytes = maxBytes.toBytes();
+    FunctionCounter.builder("bfh.question.fetches", this, QuestionFetcher::issuedFetches)
+        .tag("kind", "issued")
+        .register(flowMetrics.registry());
+    FunctionCounter.builder("bfh.question.fetches", this, QuestionFetcher::coalescedFetches)
+        .tag("kind", "coalesced")
+        .register(flowMetrics.registry());
+    FunctionCounter.builder("bfh.question.hedges", hedger, Hedger::sent)
+        .tag("kind", "sent")
+        .register(flowMetrics.registry());
+    FunctionCounter.builder("bfh.question.hedges", hedger, Hedger::won)
+        .tag("kind", "won")
+        .register(flowMetrics.registry());
+  }
+
+  /**
+   * Completes empty when no usable question text could be fetched.
+   */
+  public Mono<String> fetchQuestionText(String questionUrl) {
+    if (!StringUtils.hasText(questionUrl)) return Mono.empty();
+
+    Optional<CachedQuestion> hot = cache.getFresh(questionUrl);
+    if (hot.isPresent()) return Mono.just(hot.get().getText());
+
+    return inFlight.execute(questionUrl, () -> loadOrDownload(questionUrl));
+  }
+
+  /**
+   * Number of fetches that went past the in-memory cache and started their own load.
+   */
+  public long issuedFetches() {
+    return inFlight.issued();
+  }
+
+  /**
+   * Number of fetches that joined a load already in flight for the same URL.
+   */
+  public long coalescedFetches() {
+    return inFlight.coalesced();
+  }
+
+  /**
+   * Number of hedge requests sent because the first request was slower than the observed p95.
+   */
+  public long hedgesSent() {
+    return hedger.sent();
+  }
+
+  /**
+   * Number of hedge requests that answered before the request they were hedging.
+   */
+  public long hedgesWon() {
+    return hedger.won();
+  }
+
+  /**
+   * Streams the document at {@code url} to {@code target}, bypassing the text cache, with the same
+   * byte cap as question pages. Completes empty for non-2xx responses.
+   */
+  public Mono<Path> downloadTo(String url, Path target) {
+    return driveLinks.fetch(url, new HttpHeaders())
+        .flatMap(response -> {
+          Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+          if (!response.getStatusCode().is2xxSuccessful()) {
+            log.warn("Unexpected status {} downloading {}", response.getStatusCode(), url);
+            return body.then(Mono.<Path>empty());
+          }
+          return StreamingBodies.writeTo(StreamingBodies.limit(body, maxBytes), target);
+        })
+        .timeout(Duration.ofSeconds(30));
+  }
+
+  private Mono<String> loadOrDownload(String questionUrl) {
+    return Mono.fromCallable(() -> cache.load(questionUrl))
+        .subscribeOn(Schedulers.boundedElastic())
+        .flatMap(cached -> {
+          if (cached.isPresent() && cache.isFresh(cached.get())) {
+            return Mono.just(cached.get().getText());
+          }
+          return download(questionUrl, cached.orElse(null));
+        })
+        .onErrorResume(e -> {
+          log.warn("Error fetching remote question URL: {}", e.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  private Mono<String> download(String questionUrl, CachedQuestion stale) {
+    return Mono.defer(() -> {
+          // Try to download raw text (many drive links won't allow direct access; user-provided link might)
+          log.info("Attempting to fetch question from URL: {}", questionUrl);
+          return hedger.hedge(() -> driveLinks.fetch(questionUrl, conditionalHeaders(stale))
+              .flatMap(response -> {
+                Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+                if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && stale != null) {
+                  log.info("Question at {} not modified, reusing cached copy", questionUrl);
+                  return body.then(Mono.fromCallable(() -> cache.revalidated(stale).getText())
+                      .subscribeOn(Schedulers.boundedElastic()));
+                }
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                  log.warn("Unexpected status {} fetching question URL {}", response.getStatusCode(), questionUrl);
+                  return body.then(Mono.<String>empty());
+                }
+                HttpHeaders responseHeaders = response.getHeaders();
+                Flux<DataBuffer> limited = StreamingBodies.limit(body, maxBytes);
+                return StreamingBodies.joinLeading(limited, PdfTextExtractor.HEADER_LENGTH)
+                    .switchOnFirst((first, all) -> first.hasValue() && PdfTextExtractor.isPdf(first.get())
+                        ? pdfText.extract(all)
+                        : pageText(questionUrl, StreamingBodies.decode(all, charset(responseHeaders)), responseHeaders))
+                    .next()
+                    .filter(this::isUsable)
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(page -> cache.put(questionUrl, page, responseHeaders.getETag(),
+                        responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED)).getText());
+              }))
+              .timeout(Duration.ofSeconds(10))
+              .doOnError(e -> flowMetrics.timeout("question", e));
+        })
+        .onErrorResume(e -> {
+          if (stale == null) return Mono.error(e);
+          log.warn("Revalidating {} failed ({}); serving stale cached copy", questionUrl, e.getMessage());
+          return Mono.just(stale.getText());
+        });
+  }
+
+  /**
+   * HTML pages (Drive share links) are reduced to their visible text while streaming; anything
+   * else is taken as is.
+   */
+  private Mono<String> pageText(String questionUrl, Flux<String> chunks, HttpHeaders headers) {
+    String contentType = headers.getContentType() != null ? headers.getContentType().toString() : null;
+    return chunks.switchOnFirst((first, all) -> {
+          if (first.hasValue() && HtmlTextExtractor.looksLikeHtml(contentType, first.get())) {
+            return HtmlTextExtractor.extract(all)
+                .doOnNext(page -> log.info("Extracted {} chars of text from HTML page {} (title: '{}', metadata: {})",
+                    page.text().length(), questionUrl, page.title(), page.metadata().keySet()))
+                .map(HtmlTextExtractor.Result::text);
+          }
+          return all.collect(StringBuilder::new, StringBuilder::append).map(StringBuilder::toString);
+        })
+        .next();
+  }
+
+  private HttpHeaders conditionalHeaders(CachedQuestion stale) {
+    HttpHeaders headers = new HttpHeaders();
+    if (stale == null) return headers;
+    if (StringUtils.hasText(stale.getEtag())) {
+      headers.setIfNoneMatch(stale.getEtag());
+    }
+    if (StringUtils.hasText(stale.getLastModified())) {
+      headers.set(HttpHeaders.IF_MODIFIED_SINCE, stale.getLastModified());
+    }
+    return headers;
+  }
+
+  private static Charset charset(HttpHeaders headers) {
+    return Optional.ofNullable(headers.getContentType())
+        .map(MimeType::getCharset)
+        .orElse(StandardCharsets.UTF_8);
+  }
+
+  private boolean isUsable(String page) {
+    if (page.length() > 20) return true;
+    log.warn("Fetched page empty or too short");
+    return false;
+  }
+}
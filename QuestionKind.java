@@ -0,0 +1,14 @@
+package com.example.bfhs;
+
+/**
+ * Shapes of SQL question the solver has templates for.
+ */
+public enum QuestionKind {
+  /** Highest amount (e.g. salary payment) with details of who received it. */
+  HIGHEST_AMOUNT_WITH_DETAILS,
+  /** For every row, how many rows in the same group are younger. */
+  YOUNGER_COUNT_PER_GROUP,
+  /** Number of rows per group, e.g. employees per department. */
+  COUNT_PER_GROUP,
+  UNKNOWN
+}
@@ -0,0 +1,42 @@
+package com.example.bfhs;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces question text to a canonical form for use as a cache key: markup and entities removed,
+ * and whitespace collapsed. Case is kept, because the solver relies on it (upper-case table headers),
+so questions differing only in case may be solved differently.
+ */
+public final class QuestionNormalizer {
+  private static final Pattern SCRIPT_OR_STYLE = Pattern.compile("(?is)<(script|style)\\b.*?</\\1\\s*>");
+  private static final Pattern TAG = Pattern.compile("<[^>]*>");
+  private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(\\d+);");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private QuestionNormalizer() {
+  }
+
+  public static String normalize(String questionText) {
+    if (questionText == null) return "";
+    String text = SCRIPT_OR_STYLE.matcher(questionText).replaceAll(" ");
+    text = TAG.matcher(text).replaceAll(" ");
+    text = NUMERIC_ENTITY.matcher(text).replaceAll(match -> {
+      int codePoint = Integer.parseInt(match.group(1));
+      return Character.isValidCodePoint(codePoint) ? String.valueOf(Character.toChars(codePoint)) : " ";
+    });
+    text = text.replace("&nbsp;", " ")
+        .replace("&lt;", "<")
+        .replace("&gt;", ">")
+        .replace("&quot;", "\"")
+        .replace("&#39;", "'")
+        .replace("&amp;", "&");
+    return WHITESPACE.matcher(text).replaceAll(" ").trim();
+  }
+
+  /**
+   * 128-bit hex key of the normalized text.
+   */
+  public static String key(String questionText) {
+    return Hashes.hash128Hex(normalize(questionText));
+  }
+}
@@ -0,0 +1,19 @@
+package com.example.bfhs;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * One place question text can come from. Every source bean takes part in the race run by
+ * {@link QuestionSourceRacer}; their priority is set with {@code bfh.question.sources.order}.
+ */
+public interface QuestionSource {
+  /**
+   * Name used in {@code bfh.question.sources.order}, logs and metrics.
+   */
+  String name();
+
+  /**
+   * Completes empty when this source has nothing for the question.
+   */
+  Mono<String> fetch(String questionUrl);
+}
@@ -0,0 +1,152 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Queries every {@link QuestionSource} at once and picks an answer by priority: the best source
+ * that has answered wins as soon as every source ahead of it is done, or once the preference
+ * window (started by the first answer) has passed. A question available locally is therefore
+ * used within the window instead of after the remote fetch gives up.
+ */
+@Component
+public class QuestionSourceRacer {
+  private final Logger log = LoggerFactory.getLogger(QuestionSourceRacer.class);
+
+  private final List<QuestionSource> sources;
+  private final Duration preferenceWindow;
+  private final FlowMetrics flowMetrics;
+
+  public QuestionSourceRacer(List<QuestionSource> sources,
+                             FlowMetrics flowMetrics,
+                             @Value("${bfh.question.sources.order:remote,inline,local-file}") List<String> order,
+                             @Value("${bfh.question.sources.preference-window:PT0.1S}") Duration preferenceWindow) {
+    List<QuestionSource> ordered = new ArrayList<>(sources);
+    // sources missing from the order go last, in bean order
+    ordered.sort(Comparator.comparingInt(source -> {
+      int index = order.indexOf(source.name());
+      return index < 0 ? Integer.MAX_VALUE : index;
+    }));
+    this.sources = List.copyOf(ordered);
+    this.flowMetrics = flowMetrics;
+    this.preferenceWindow = preferenceWindow;
+  }
+
+  /**
+   * Completes empty when no source has the question.
+   */
+  public Mono<String> race(String questionUrl) {
+    return Mono.<Answer>create(sink -> new Race(sink, questionUrl).start())
+        .doOnNext(answer -> {
+          log.info("Using question text from {} source", answer.source.name());
+          flowMetrics.questionSource(answer.source.name(), answer.index > 0);
+        })
+        .map(answer -> answer.text);
+  }
+
+  public List<QuestionSource> sources() {
+    return sources;
+  }
+
+  private record Answer(QuestionSource source, int index, String text) {
+  }
+
+  private final class Race {
+    private final MonoSink<Answer> sink;
+    private final String questionUrl;
+    private final Answer[] answers = new Answer[sources.size()];
+    private final boolean[] done = new boolean[sources.size()];
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private boolean windowStarted;
+    private boolean windowElapsed;
+    private boolean finished;
+
+    Race(MonoSink<Answer> sink, String questionUrl) {
+      this.sink = sink;
+      this.questionUrl = questionUrl;
+    }
+
+    void start() {
+      sink.onDispose(subscriptions);
+      for (int i = 0; i < sources.size(); i++) {
+        int index = i;
+        QuestionSource source = sources.get(i);
+        subscriptions.add(source.fetch(questionUrl).subscribe(
+            text -> answered(index, new Answer(source, index, text)),
+            e -> {
+              log.warn("Question source {} failed: {}", source.name(), e.getMessage());
+              completed(index);
+            },
+            () -> completed(index)));
+      }
+      if (sources.isEmpty()) sink.success();
+    }
+
+    private synchronized void answered(int index, Answer answer) {
+      answers[index] = answer;
+      done[index] = true;
+      evaluate();
+    }
+
+    private synchronized void completed(int index) {
+      done[index] = true;
+      evaluate();
+    }
+
+    private synchronized void windowElapsed() {
+      windowElapsed = true;
+      evaluate();
+    }
+
+    private void evaluate() {
+      if (finished) return;
+      int best = -1;
+      for (int i = 0; i < answers.length; i++) {
+        if (answers[i] != null) {
+          best = i;
+          break;
+        }
+      }
+      if (best < 0) {
+        if (allDone(answers.length)) finish(null);
+        return;
+      }
+      if (allDone(best) || windowElapsed) {
+        finish(answers[best]);
+        return;
+      }
+      if (!windowStarted) {
+        windowStarted = true;
+        subscriptions.add(Mono.delay(preferenceWindow).subscribe(tick -> windowElapsed()));
+      }
+    }
+
+    private boolean allDone(int upTo) {
+      for (int i = 0; i < upTo; i++) {
+        if (!done[i]) return false;
+      }
+      return true;
+    }
+
+    private void finish(Answer answer) {
+      finished = true;
+      if (answer == null) {
+        sink.success();
+      } else {
+        sink.success(answer);
+      }
+    }
+  }
+}
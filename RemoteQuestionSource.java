@@ -0,0 +1,27 @@
+package com.example.bfhs;
+
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * The question URL chosen from the regNo, fetched through {@link QuestionFetcher}.
+ */
+@Component
+public class RemoteQuestionSource implements QuestionSource {
+  private final QuestionFetcher questionFetcher;
+
+  public RemoteQuestionSource(QuestionFetcher questionFetcher) {
+    this.questionFetcher = questionFetcher;
+  }
+
+  @Override
+  public String name() {
+    return "remote";
+  }
+
+  @Override
+  public Mono<String> fetch(String questionUrl) {
+    return questionFetcher.fetchQuestionText(questionUrl);
+  }
+}
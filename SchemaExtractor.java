@@ -0,0 +1,66 @@
+package com.example.bfhs;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pulls table definitions out of question text. Recognises headers like "Table 1: EMPLOYEE" or
+ * "EMPLOYEE Table", then takes the upper-case identifiers that follow as columns until the
+ * first sample data row (a line starting with a digit) or the next table header.
+ */
+public class SchemaExtractor {
+  private static final Pattern TABLE_HEADER = Pattern.compile(
+      "(?i)\\btable[ \\t]*\\d*[ \\t]*[:.\\-]?[ \\t]*([A-Za-z_][A-Za-z0-9_]*)|\\b([A-Za-z_][A-Za-z0-9_]*)[ \\t]+table\\b");
+  private static final Pattern IDENTIFIER = Pattern.compile("\\b[A-Z][A-Z0-9]*(?:_[A-Z0-9]+)*\\b");
+  private static final Pattern DATA_ROW = Pattern.compile("(?m)^\\s*\\d");
+  private static final Set<String> NOT_COLUMNS = Set.of(
+      "TABLE", "INT", "INTEGER", "BIGINT", "VARCHAR", "CHAR", "TEXT", "DATE", "DATETIME", "TIMESTAMP",
+      "DECIMAL", "NUMERIC", "FLOAT", "DOUBLE", "BOOLEAN", "PRIMARY", "FOREIGN", "KEY", "REFERENCES",
+      "NOT", "NULL", "UNIQUE", "DEFAULT", "COLUMN", "NAME", "TYPE", "DATA", "SQL", "ID");
+  private static final Set<String> NOT_TABLES = Set.of(
+      "THE", "A", "AN", "THIS", "EACH", "SAME", "FOLLOWING", "GIVEN", "BELOW", "ABOVE", "STRUCTURE", "OF");
+
+  public SqlSchema extract(String questionText) {
+    Map<String, List<String>> tables = new LinkedHashMap<>();
+    if (questionText == null) return new SqlSchema(tables);
+
+    List<int[]> spans = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    Matcher header = TABLE_HEADER.matcher(questionText);
+    while (header.find()) {
+      String name = header.group(1) != null ? header.group(1) : header.group(2);
+      String upper = name.toUpperCase(Locale.ROOT);
+      if (NOT_TABLES.contains(upper) || !name.equals(upper)) continue;
+      names.add(upper);
+      spans.add(new int[] {header.start(), header.end()});
+    }
+
+    for (int i = 0; i < names.size(); i++) {
+      int from = spans.get(i)[1];
+      int to = i + 1 < spans.size() ? spans.get(i + 1)[0] : questionText.length();
+      String section = questionText.substring(from, Math.max(from, to));
+      Matcher dataRow = DATA_ROW.matcher(section);
+      if (dataRow.find()) {
+        section = section.substring(0, dataRow.start());
+      }
+      List<String> columns = tables.computeIfAbsent(names.get(i), k -> new ArrayList<>());
+      Matcher identifier = IDENTIFIER.matcher(section);
+      while (identifier.find()) {
+        String column = identifier.group();
+        if (column.length() < 2 || NOT_COLUMNS.contains(column) || column.equals(names.get(i))
+            || columns.contains(column)) {
+          continue;
+        }
+        columns.add(column);
+      }
+    }
+    tables.values().removeIf(List::isEmpty);
+    return new SqlSchema(tables);
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.bfhs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent calls for the same key: while a call is in flight, later callers share
+ * its result instead of starting their own. Once it completes the key is free again.
+ */
+class SingleFlight<K, V> {
+  private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder issued = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  Mono<V> execute(K key, Supplier<Mono<V>> call) {
+    return Mono.defer(() -> {
+      boolean[] leader = {false};
+      Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+        leader[0] = true;
+        return Mono.defer(call)
+            .doFinally(signal -> inFlight.remove(k))
+            .cache();
+      });
+      if (leader[0]) {
+        issued.increment();
+      } else {
+        coalesced.increment();
+      }
+      return shared;
+    });
+  }
+
+  long issued() {
+    return issued.sum();
+  }
+
+  long coalesced() {
+    return coalesced.sum();
+  }
+}
@@ -0,0 +1,145 @@
+package com.example.bfhs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Memoizes solver output by the 128-bit key of the normalized question text, prefixed with
+ * {@link SqlTemplates#VERSION} so results from older templates are never served. Produced queries
+ * can be appended to {@code bfh.solver-cache.file} by a single writer thread and are reloaded on
+ * startup; questions the solver could not answer are only remembered in memory.
+ */
+@Component
+public class SolverCache {
+  private static final String NO_QUERY = "";
+  private static final String KEY_PREFIX = "v" + SqlTemplates.VERSION + ":";
+
+  private final Logger log = LoggerFactory.getLogger(SolverCache.class);
+
+  private final Cache<String, String> cache;
+  private final Path file;
+  private final ExecutorService writes;
+  private BufferedWriter writer;
+
+  public SolverCache(@Value("${bfh.solver-cache.max-entries:10000}") int maxEntries,
+                     @Value("${bfh.solver-cache.file:}") String file) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maxEntries)
+        .recordStats()
+        .build();
+    this.file = StringUtils.hasText(file) ? Path.of(file) : null;
+    this.writes = this.file == null ? null : Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "bfh-solver-cache-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    load();
+  }
+
+  public Optional<String> solve(String questionText, Function<String, Optional<String>> solver) {
+    String key = KEY_PREFIX + QuestionNormalizer.key(questionText);
+    boolean[] solvedNow = {false};
+    String finalQuery = cache.get(key, k -> {
+      solvedNow[0] = true;
+      return solver.apply(questionText).orElse(NO_QUERY);
+    });
+    if (solvedNow[0] && !finalQuery.isEmpty()) persist(key, finalQuery);
+    return Optional.of(finalQuery).filter(StringUtils::hasText);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  Cache<String, String> cache() {
+    return cache;
+  }
+
+  private void load() {
+    if (file == null || !Files.exists(file)) return;
+    try {
+      List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+      int loaded = 0;
+      for (String line : lines) {
+        int tab = line.indexOf('\t');
+        // entries written by other template versions are left for the file to outgrow
+        if (tab <= 0 || !line.startsWith(KEY_PREFIX)) continue;
+        String query = new String(Base64.getDecoder().decode(line.substring(tab + 1)), StandardCharsets.UTF_8);
+        cache.put(line.substring(0, tab), query);
+        loaded++;
+      }
+      log.info("Loaded {} memoized solver results from {} ({} line(s) skipped)", loaded, file,
+          lines.size() - loaded);
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("Error loading solver cache file {}: {}", file, e.getMessage());
+    }
+  }
+
+  private void persist(String key, String finalQuery) {
+    if (writes == null) return;
+    try {
+      writes.execute(() -> append(key, finalQuery));
+    } catch (RejectedExecutionException e) {
+      // shutting down, the result is simply not kept
+    }
+  }
+
+  /**
+   * Only ever runs on the writer thread.
+   */
+  private void append(String key, String finalQuery) {
+    try {
+      if (writer == null) {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+      writer.write(key + '\t' + Base64.getEncoder().encodeToString(finalQuery.getBytes(StandardCharsets.UTF_8)));
+      writer.newLine();
+      writer.flush();
+    } catch (IOException e) {
+      log.warn("Error writing solver cache file {}: {}", file, e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  void close() throws InterruptedException {
+    if (writes == null) return;
+    writes.shutdown();
+    if (!writes.awaitTermination(5, TimeUnit.SECONDS)) {
+      log.warn("Solver cache writer still busy after 5s, dropping pending entries");
+      writes.shutdownNow();
+    }
+    if (writer == null) return;
+    try {
+      writer.close();
+    } catch (IOException e) {
+      log.warn("Error closing solver cache file {}: {}", file, e.getMessage());
+    }
+    writer = null;
+  }
+}
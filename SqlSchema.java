@@ -0,0 +1,112 @@
+package com.example.bfhs;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tables and their columns as described by a question. Names are upper-case and keep the
+ * order in which they appeared.
+ */
+public final class SqlSchema {
+  private final Map<String, List<String>> tables;
+
+  public SqlSchema(Map<String, List<String>> tables) {
+    this.tables = Collections.unmodifiableMap(new LinkedHashMap<>(tables));
+  }
+
+  /**
+   * The DEPARTMENT / EMPLOYEE / PAYMENTS schema used by the BFH hiring questions, for when the
+   * question text itself does not carry the table definitions.
+   */
+  public static SqlSchema bfhDefault() {
+    Map<String, List<String>> tables = new LinkedHashMap<>();
+    tables.put("DEPARTMENT", List.of("DEPARTMENT_ID", "DEPARTMENT_NAME"));
+    tables.put("EMPLOYEE", List.of("EMP_ID", "FIRST_NAME", "LAST_NAME", "DOB", "GENDER", "DEPARTMENT"));
+    tables.put("PAYMENTS", List.of("PAYMENT_ID", "EMP_ID", "AMOUNT", "PAYMENT_TIME"));
+    return new SqlSchema(tables);
+  }
+
+  public Map<String, List<String>> tables() {
+    return tables;
+  }
+
+  public boolean isEmpty() {
+    return tables.isEmpty();
+  }
+
+  /**
+   * First table whose name contains one of the hints, trying hints in order.
+   */
+  public Optional<String> findTable(String... hints) {
+    for (String hint : hints) {
+      for (String table : tables.keySet()) {
+        if (table.contains(hint.toUpperCase(Locale.ROOT))) return Optional.of(table);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * First table that has a column matching one of the hints, trying hints in order.
+   */
+  public Optional<String> findTableWithColumn(String... columnHints) {
+    for (String hint : columnHints) {
+      for (String table : tables.keySet()) {
+        if (findColumn(table, hint).isPresent()) return Optional.of(table);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Column of {@code table} equal to one of the hints, or failing that containing one.
+   */
+  public Optional<String> findColumn(String table, String... hints) {
+    List<String> columns = tables.getOrDefault(table, List.of());
+    for (String hint : hints) {
+      String upper = hint.toUpperCase(Locale.ROOT);
+      if (columns.contains(upper)) return Optional.of(upper);
+    }
+    for (String hint : hints) {
+      String upper = hint.toUpperCase(Locale.ROOT);
+      for (String column : columns) {
+        if (column.contains(upper)) return Optional.of(column);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * First {@code *_ID} column, or the first column when there is none.
+   */
+  public Optional<String> primaryKey(String table) {
+    List<String> columns = tables.getOrDefault(table, List.of());
+    return columns.stream()
+        .filter(column -> column.endsWith("_ID"))
+        .findFirst()
+        .or(() -> columns.stream().findFirst());
+  }
+
+  /**
+   * Column of {@code from} referencing {@code to}: either named like the key of {@code to}
+   * or like the table {@code to} itself.
+   */
+  public Optional<String> joinColumn(String from, String to) {
+    List<String> columns = tables.getOrDefault(from, List.of());
+    Optional<String> key = primaryKey(to).filter(columns::contains);
+    if (key.isPresent()) return key;
+    if (columns.contains(to)) return Optional.of(to);
+    return columns.stream()
+        .filter(column -> column.startsWith(to) || to.startsWith(column.replace("_ID", "")))
+        .findFirst();
+  }
+
+  @Override
+  public String toString() {
+    return tables.toString();
+  }
+}
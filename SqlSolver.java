@@ -0,0 +1,61 @@
+package com.example.bfhs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rule based SQL solver: classifies the question, extracts the schema it describes and renders
+ * the first template for that kind that can be satisfied. Has no I/O, so it can be used and
+ * benchmarked on its own with {@code new SqlSolver()}.
+ */
+@Component
+public class SqlSolver {
+  private final Logger log = LoggerFactory.getLogger(SqlSolver.class);
+
+  private final QuestionClassifier classifier = new QuestionClassifier();
+  private final SchemaExtractor schemaExtractor = new SchemaExtractor();
+  private final List<SqlTemplate> templates;
+
+  public SqlSolver() {
+    this(SqlTemplates.defaults());
+  }
+
+  public SqlSolver(List<SqlTemplate> templates) {
+    this.templates = List.copyOf(templates);
+  }
+
+  /**
+   * Returns a copy of this solver that also tries {@code template}, ahead of the built-in ones.
+   */
+  public SqlSolver withTemplate(SqlTemplate template) {
+    List<SqlTemplate> combined = new ArrayList<>();
+    combined.add(template);
+    combined.addAll(templates);
+    return new SqlSolver(combined);
+  }
+
+  public Optional<String> solve(String questionText) {
+    QuestionKind kind = classifier.classify(questionText);
+    if (kind == QuestionKind.UNKNOWN) {
+      log.debug("Question did not match any known kind");
+      return Optional.empty();
+    }
+    SqlSchema schema = schemaExtractor.extract(questionText);
+    if (schema.isEmpty()) {
+      log.debug("No tables found in question text; assuming the standard BFH schema");
+      schema = SqlSchema.bfhDefault();
+    }
+    for (SqlTemplate template : templates) {
+      if (template.kind() != kind) continue;
+      Optional<String> sql = template.render(questionText, schema);
+      if (sql.isPresent()) return sql;
+    }
+    log.debug("No {} template could be rendered for schema {}", kind, schema);
+    return Optional.empty();
+  }
+}
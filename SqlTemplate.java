@@ -0,0 +1,13 @@
+package com.example.bfhs;
+
+import java.util.Optional;
+
+/**
+ * Produces SQL for one {@link QuestionKind}. Implementations should return empty rather than
+ * guess when the schema lacks the tables or columns they need.
+ */
+public interface SqlTemplate {
+  QuestionKind kind();
+
+  Optional<String> render(String questionText, SqlSchema schema);
+}
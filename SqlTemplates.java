@@ -0,0 +1,180 @@
+package com.example.bfhs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Built-in templates. Generated SQL targets MySQL and is returned on a single line.
+ */
+public final class SqlTemplates {
+  /**
+   * Bump whenever a template's output changes, so memoized results from older versions are dropped.
+   */
+  public static final int VERSION = 2;
+
+  private SqlTemplates() {
+  }
+
+  public static List<SqlTemplate> defaults() {
+    return List.of(new HighestAmountWithDetails(), new YoungerCountPerGroup(), new CountPerGroup());
+  }
+
+  /**
+   * Highest payment, optionally excluding a day of the month, with name, age and department of the payee.
+   */
+  static final class HighestAmountWithDetails implements SqlTemplate {
+    private static final Pattern EXCLUDED_DAY = Pattern.compile(
+        "not\\s+(?:\\w+\\s+){0,3}on\\s+the\\s+(\\d{1,2})(?:st|nd|rd|th)?\\s+(?:day|of)");
+
+    @Override
+    public QuestionKind kind() {
+      return QuestionKind.HIGHEST_AMOUNT_WITH_DETAILS;
+    }
+
+    @Override
+    public Optional<String> render(String questionText, SqlSchema schema) {
+      Optional<String> payments = schema.findTableWithColumn("AMOUNT", "SALARY");
+      Optional<String> employees = schema.findTableWithColumn("FIRST_NAME", "DOB");
+      if (payments.isEmpty() || employees.isEmpty()) return Optional.empty();
+      String p = payments.get();
+      String e = employees.get();
+      Optional<String> amount = schema.findColumn(p, "AMOUNT", "SALARY");
+      Optional<String> payee = schema.joinColumn(p, e);
+      Optional<String> employeeKey = schema.primaryKey(e);
+      if (amount.isEmpty() || payee.isEmpty() || employeeKey.isEmpty()) return Optional.empty();
+
+      List<String> select = new ArrayList<>();
+      select.add("p." + amount.get() + " AS SALARY");
+      select.add(fullName(schema, e, "e") + " AS NAME");
+      schema.findColumn(e, "DOB", "BIRTH")
+          .ifPresent(dob -> select.add("TIMESTAMPDIFF(YEAR, e." + dob + ", CURDATE()) AS AGE"));
+
+      StringBuilder sql = new StringBuilder("SELECT ");
+      String from = " FROM " + p + " p JOIN " + e + " e ON e." + employeeKey.get() + " = p." + payee.get();
+      Optional<String> departmentJoin = departmentJoin(schema, e, "e", "d");
+      if (departmentJoin.isPresent()) {
+        select.add("d." + schema.findColumn(schema.findTable("DEPARTMENT", "DEPT").get(), "DEPARTMENT_NAME", "NAME")
+            .orElse("DEPARTMENT_NAME"));
+        from += departmentJoin.get();
+      }
+      sql.append(String.join(", ", select)).append(from);
+
+      Matcher excluded = EXCLUDED_DAY.matcher(questionText.toLowerCase(Locale.ROOT));
+      Optional<String> paidAt = schema.findColumn(p, "PAYMENT_TIME", "TIME", "DATE");
+      if (excluded.find() && paidAt.isPresent()) {
+        sql.append(" WHERE DAY(p.").append(paidAt.get()).append(") <> ").append(Integer.parseInt(excluded.group(1)));
+      }
+      sql.append(" ORDER BY p.").append(amount.get()).append(" DESC LIMIT 1;");
+      return Optional.of(sql.toString());
+    }
+  }
+
+  /**
+   * For each employee, the number of employees in the same department born after them.
+   */
+  static final class YoungerCountPerGroup implements SqlTemplate {
+    // descending only when asked for next to an ordering phrase; "description" and the like don't count
+    private static final Pattern DESCENDING = Pattern.compile(
+        "\\b(?:order(?:ed)?|sort(?:ed)?)\\s+(?:\\w+\\s+){0,3}?by\\b[^.;\\n]{0,40}?\\b(?:desc|descending)\\b"
+            + "|\\b(?:desc|descending)\\s+order\\s+(?:of|by)\\s+(?:the\\s+)?(?:emp(?:loyee)?[_ ]?id)\\b");
+
+    @Override
+    public QuestionKind kind() {
+      return QuestionKind.YOUNGER_COUNT_PER_GROUP;
+    }
+
+    @Override
+    public Optional<String> render(String questionText, SqlSchema schema) {
+      Optional<String> employees = schema.findTableWithColumn("DOB", "BIRTH");
+      if (employees.isEmpty()) return Optional.empty();
+      String e = employees.get();
+      Optional<String> key = schema.primaryKey(e);
+      Optional<String> dob = schema.findColumn(e, "DOB", "BIRTH");
+      Optional<String> group = schema.findTable("DEPARTMENT", "DEPT").flatMap(d -> schema.joinColumn(e, d));
+      if (key.isEmpty() || dob.isEmpty() || group.isEmpty()) return Optional.empty();
+
+      String text = questionText.toLowerCase(Locale.ROOT);
+      // "older" flips the comparison; the default reading is "younger than"
+      String comparison = text.contains("older") && !text.contains("younger") ? " < " : " > ";
+      String countAlias = comparison.equals(" > ") ? "YOUNGER_EMPLOYEES_COUNT" : "OLDER_EMPLOYEES_COUNT";
+
+      List<String> columns = new ArrayList<>();
+      columns.add("e1." + key.get());
+      schema.findColumn(e, "FIRST_NAME").ifPresent(c -> columns.add("e1." + c));
+      schema.findColumn(e, "LAST_NAME").ifPresent(c -> columns.add("e1." + c));
+      String from = " FROM " + e + " e1";
+      Optional<String> departmentJoin = departmentJoin(schema, e, "e1", "d");
+      if (departmentJoin.isPresent()) {
+        String department = schema.findTable("DEPARTMENT", "DEPT").get();
+        columns.add("d." + schema.findColumn(department, "DEPARTMENT_NAME", "NAME").orElse("DEPARTMENT_NAME"));
+        from += departmentJoin.get();
+      }
+      String groupBy = String.join(", ", columns);
+      String order = DESCENDING.matcher(text).find() ? " DESC" : " ASC";
+
+      return Optional.of("SELECT " + groupBy + ", COUNT(e2." + key.get() + ") AS " + countAlias
+          + from
+          + " LEFT JOIN " + e + " e2 ON e2." + group.get() + " = e1." + group.get()
+          + " AND e2." + dob.get() + comparison + "e1." + dob.get()
+          + " GROUP BY " + groupBy
+          + " ORDER BY e1." + key.get() + order + ";");
+    }
+  }
+
+  /**
+   * Number of employees per department, including departments without any.
+   */
+  static final class CountPerGroup implements SqlTemplate {
+    @Override
+    public QuestionKind kind() {
+      return QuestionKind.COUNT_PER_GROUP;
+    }
+
+    @Override
+    public Optional<String> render(String questionText, SqlSchema schema) {
+      Optional<String> departments = schema.findTable("DEPARTMENT", "DEPT");
+      Optional<String> employees = schema.findTable("EMPLOYEE", "EMP");
+      if (departments.isEmpty() || employees.isEmpty()) return Optional.empty();
+      String d = departments.get();
+      String e = employees.get();
+      Optional<String> departmentKey = schema.primaryKey(d);
+      Optional<String> employeeKey = schema.primaryKey(e);
+      Optional<String> member = schema.joinColumn(e, d);
+      if (departmentKey.isEmpty() || employeeKey.isEmpty() || member.isEmpty()) return Optional.empty();
+      String name = "d." + schema.findColumn(d, "DEPARTMENT_NAME", "NAME").orElse(departmentKey.get());
+
+      return Optional.of("SELECT " + name + ", COUNT(e." + employeeKey.get() + ") AS EMPLOYEE_COUNT"
+          + " FROM " + d + " d LEFT JOIN " + e + " e ON e." + member.get() + " = d." + departmentKey.get()
+          + " GROUP BY " + name
+          + " ORDER BY " + name + ";");
+    }
+  }
+
+  private static String fullName(SqlSchema schema, String table, String alias) {
+    Optional<String> first = schema.findColumn(table, "FIRST_NAME");
+    Optional<String> last = schema.findColumn(table, "LAST_NAME");
+    if (first.isPresent() && last.isPresent()) {
+      return "CONCAT(" + alias + "." + first.get() + ", ' ', " + alias + "." + last.get() + ")";
+    }
+    return alias + "." + first.or(() -> schema.findColumn(table, "NAME")).orElse("NAME");
+  }
+
+  /**
+   * " JOIN DEPARTMENT d ON ..." when the schema has a department table the employee table points at.
+   */
+  private static Optional<String> departmentJoin(SqlSchema schema, String employees, String employeeAlias,
+                                                 String departmentAlias) {
+    Optional<String> departments = schema.findTable("DEPARTMENT", "DEPT");
+    if (departments.isEmpty()) return Optional.empty();
+    String d = departments.get();
+    Optional<String> key = schema.primaryKey(d);
+    Optional<String> member = schema.joinColumn(employees, d);
+    if (key.isEmpty() || member.isEmpty()) return Optional.empty();
+    return Optional.of(" JOIN " + d + " " + departmentAlias + " ON " + departmentAlias + "." + key.get()
+        + " = " + employeeAlias + "." + member.get());
+  }
+}
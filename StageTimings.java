@@ -0,0 +1,71 @@
+package com.example.bfhs;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-flow stage clock. Records how long each stage took and when it started relative to the
+ * start of the flow, so overlapping stages can be told apart from sequential ones. Every stage
+ * is also reported to {@link FlowMetrics}.
+ */
+class StageTimings {
+  private final FlowMetrics flowMetrics;
+  private final long flowStartNanos = System.nanoTime();
+  private final Map<String, Long> durations = new ConcurrentHashMap<>();
+  private final Map<String, Long> offsets = new ConcurrentHashMap<>();
+
+  StageTimings(FlowMetrics flowMetrics) {
+    this.flowMetrics = flowMetrics;
+  }
+
+  <T> Mono<T> time(String stage, Mono<T> mono) {
+    return Mono.defer(() -> {
+      long started = System.nanoTime();
+      return mono
+          .doOnSuccess(value -> record(stage, started, true))
+          .doOnError(e -> record(stage, started, false));
+    });
+  }
+
+  /**
+   * Blocking counterpart of {@link #time(String, Mono)}.
+   */
+  <T> T time(String stage, Callable<T> call) throws Exception {
+    long started = System.nanoTime();
+    try {
+      T value = call.call();
+      record(stage, started, true);
+      return value;
+    } catch (Exception e) {
+      record(stage, started, false);
+      throw e;
+    }
+  }
+
+  void record(String stage, long startedNanos, boolean success) {
+    long durationNanos = System.nanoTime() - startedNanos;
+    offsets.put(stage, toMillis(startedNanos - flowStartNanos));
+    durations.put(stage, toMillis(durationNanos));
+    flowMetrics.stage(stage, durationNanos, success);
+  }
+
+  long totalMillis() {
+    return toMillis(System.nanoTime() - flowStartNanos);
+  }
+
+  Map<String, Long> durations() {
+    return Map.copyOf(durations);
+  }
+
+  Map<String, Long> offsets() {
+    return Map.copyOf(offsets);
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.bfhs;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Helpers for consuming response bodies as a stream of {@link DataBuffer}s instead of one
+ * aggregated buffer. Every buffer is released once it has been consumed.
+ */
+final class StreamingBodies {
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private StreamingBodies() {
+  }
+
+  /**
+   * Passes buffers through until more than {@code maxBytes} have been seen, then fails with a
+   * {@link DataBufferLimitException} and cancels the rest of the body.
+   */
+  static Flux<DataBuffer> limit(Flux<DataBuffer> body, long maxBytes) {
+    return Flux.defer(() -> {
+      long[] seen = {0};
+      return body.<DataBuffer>handle((buffer, sink) -> {
+            seen[0] += buffer.readableByteCount();
+            if (seen[0] > maxBytes) {
+              DataBufferUtils.release(buffer);
+              sink.error(new DataBufferLimitException("Body exceeds the limit of " + maxBytes + " bytes"));
+            } else {
+              sink.next(buffer);
+            }
+          })
+          .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    });
+  }
+
+  /**
+   * Joins leading buffers until the first one emitted holds at least {@code minBytes} (or the
+   * whole body, if shorter), so a peek at the start of the body does not depend on how the
+   * transport happened to split it. Later buffers pass through unchanged.
+   */
+  static Flux<DataBuffer> joinLeading(Flux<DataBuffer> body, int minBytes) {
+    return Flux.defer(() -> {
+      List<DataBuffer> head = new ArrayList<>();
+      int[] size = {0};
+      return body.<DataBuffer>handle((buffer, sink) -> {
+            if (size[0] >= minBytes) {
+              sink.next(buffer);
+              return;
+            }
+            head.add(buffer);
+            size[0] += buffer.readableByteCount();
+            if (size[0] >= minBytes) sink.next(takeJoined(head));
+          })
+          .concatWith(Mono.fromSupplier(() -> head.isEmpty() ? null : takeJoined(head)))
+          .doFinally(signal -> {
+            head.forEach(DataBufferUtils::release);
+            head.clear();
+          })
+          .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    });
+  }
+
+  /**
+   * Decodes the body chunk by chunk. Multi-byte characters split across buffers are carried
+   * over to the next chunk; malformed input is replaced rather than failing the download.
+   */
+  static Flux<String> decode(Flux<DataBuffer> body, Charset charset) {
+    return Flux.defer(() -> {
+      CharsetDecoder decoder = charset.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      ByteBuffer[] carry = {EMPTY};
+      return body
+          .map(buffer -> {
+            try {
+              byte[] bytes = new byte[buffer.readableByteCount()];
+              buffer.read(bytes);
+              ByteBuffer in = prepend(carry[0], bytes);
+              CharBuffer out = CharBuffer.allocate((int) (in.remaining() * decoder.maxCharsPerByte()) + 1);
+              decoder.decode(in, out, false);
+              carry[0] = in.hasRemaining() ? ByteBuffer.wrap(copyRemaining(in)) : EMPTY;
+              return out.flip().toString();
+            } finally {
+              DataBufferUtils.release(buffer);
+            }
+          })
+          .concatWith(Mono.fromSupplier(() -> {
+            CharBuffer out = CharBuffer.allocate((int) (carry[0].remaining() * decoder.maxCharsPerByte()) + 16);
+            decoder.decode(carry[0], out, true);
+            decoder.flush(out);
+            return out.flip().toString();
+          }))
+          .filter(chunk -> !chunk.isEmpty())
+          .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    });
+  }
+
+  /**
+   * Streams the body to {@code file} without holding it in memory.
+   */
+  static Mono<Path> writeTo(Flux<DataBuffer> body, Path file) {
+    return DataBufferUtils.write(body, file).thenReturn(file);
+  }
+
+  private static DataBuffer takeJoined(List<DataBuffer> buffers) {
+    DataBuffer joined = buffers.size() == 1 ? buffers.get(0) : buffers.get(0).factory().join(List.copyOf(buffers));
+    buffers.clear();
+    return joined;
+  }
+
+  private static ByteBuffer prepend(ByteBuffer carry, byte[] bytes) {
+    if (!carry.hasRemaining()) return ByteBuffer.wrap(bytes);
+    ByteBuffer joined = ByteBuffer.allocate(carry.remaining() + bytes.length);
+    joined.put(carry.duplicate()).put(bytes).flip();
+    return joined;
+  }
+
+  private static byte[] copyRemaining(ByteBuffer buffer) {
+    byte[] rest = new byte[buffer.remaining()];
+    buffer.get(rest);
+    return rest;
+  }
+}
@@ -0,0 +1,196 @@
+package com.example.bfhs;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the flow in plain blocking style, one virtual thread per flow. Generate and question fetch
+ * are forked as subtasks of the flow and joined before solving; if one fails the other is cancelled.
+ * Produces the same {@link FlowResult} as {@link FlowService#executeFlowReactive(Candidate)}.
+ */
+@Component
+public class VirtualThreadFlowRunner {
+  private final Logger log = LoggerFactory.getLogger(VirtualThreadFlowRunner.class);
+
+  private final FlowService flowService;
+  private final FlowMetrics flowMetrics;
+  private final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+  private final Scheduler scheduler = Schedulers.fromExecutorService(executor, "bfh-virtual");
+
+  public VirtualThreadFlowRunner(FlowService flowService, FlowMetrics flowMetrics) {
+    this.flowService = flowService;
+    this.flowMetrics = flowMetrics;
+  }
+
+  /**
+   * Runs {@link #executeFlow(Candidate)} on its own virtual thread.
+   */
+  public Mono<FlowResult> executeFlowAsync(Candidate candidate) {
+    return Mono.fromCallable(() -> executeFlow(candidate))
+        .subscribeOn(scheduler);
+  }
+
+  /**
+   * Blocks the calling thread until the flow finishes; meant to be called on a virtual thread.
+   */
+  public FlowResult executeFlow(Candidate candidate) {
+    log.info("Starting BFH solve flow for {}, regNo {} on {}", candidate.getName(), candidate.getRegNo(),
+        Thread.currentThread());
+    StageTimings timings = new StageTimings(flowMetrics);
+    FlowResult.FlowResultBuilder result = FlowResult.builder()
+        .name(candidate.getName())
+        .regNo(candidate.getRegNo());
+    try {
+      run(candidate, result, timings);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.status(FlowResult.Status.FAILED).error("interrupted");
+    } catch (Exception e) {
+      Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+      log.error("BFH solve flow failed: {}", cause.getMessage(), cause);
+      result.status(FlowResult.Status.FAILED).error(cause.getMessage());
+    }
+    FlowResult flowResult = result
+        .stageMillis(timings.durations())
+        .stageStartMillis(timings.offsets())
+        .totalMillis(timings.totalMillis())
+        .build();
+    flowMetrics.flow(flowResult.getStatus());
+    log.info("Flow finished with status {} in {} ms, stage timings {}, stage starts {}",
+        flowResult.getStatus(), flowResult.getTotalMillis(), flowResult.getStageMillis(),
+        flowResult.getStageStartMillis());
+    return flowResult;
+  }
+
+  private void run(Candidate candidate, FlowResult.FlowResultBuilder result, StageTimings timings) throws Exception {
+    String questionUrl = flowService.chooseQuestionUrl(candidate.getRegNo());
+    result.questionUrl(questionUrl);
+
+    // 1. generateWebhook and 2. question fetch as sibling subtasks
+    GenerateResponse generateResponse;
+    Optional<String> questionText;
+    try (Subtasks subtasks = new Subtasks(executor)) {
+      Future<GenerateResponse> generate = subtasks.fork(() ->
+          timings.time("generate", () -> flowService.generateWebhook(candidate).block()));
+      Future<Optional<String>> question = subtasks.fork(() ->
+          timings.time("question", () -> flowService.questionText(questionUrl).blockOptional()));
+      subtasks.join();
+      generateResponse = generate.get();
+      questionText = question.get();
+    }
+
+    if (generateResponse == null || !StringUtils.hasText(generateResponse.getWebhook())) {
+      log.error("Failed to get webhook from generateWebhook response: {}", generateResponse);
+      result.status(FlowResult.Status.NO_WEBHOOK);
+      return;
+    }
+    result.webhook(generateResponse.getWebhook());
+    if (questionText.isEmpty()) {
+      log.error("No question text available. Provide inline question via application.properties or upload a local file.");
+      result.status(FlowResult.Status.NO_QUESTION);
+      return;
+    }
+
+    // 3. Solve
+    String finalQuery;
+    try {
+      finalQuery = timings.time("solve", () -> flowService.solveSqlQuestion(questionText.get()));
+    } catch (Exception e) {
+      log.error("Failed to solve SQL question automatically: {}", e.getMessage(), e);
+      finalQuery = null;
+    }
+    if (!StringUtils.hasText(finalQuery)) {
+      log.warn("No finalQuery produced automatically. Please provide 'finalQuery' in application.properties or paste it here.");
+      result.status(FlowResult.Status.NO_QUERY);
+      return;
+    }
+    result.finalQuery(finalQuery);
+
+    // 4. Submit
+    String query = finalQuery;
+    try {
+      timings.time("submit", () -> flowService.submitFinalQuery(generateResponse.getAccessToken(), query).block());
+      log.info("Successfully submitted finalQuery to testWebhook");
+      flowMetrics.submit(true);
+      result.status(FlowResult.Status.SUBMITTED);
+    } catch (Exception ex) {
+      log.error("Failed to submit finalQuery: {}", ex.getMessage(), ex);
+      flowMetrics.submit(false);
+      result.status(FlowResult.Status.SUBMIT_FAILED).error(ex.getMessage());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scheduler.dispose();
+    executor.shutdownNow();
+  }
+
+  /**
+   * Minimal structured scope: subtasks forked here are joined together, the first failure
+   * cancels the rest, and closing the scope cancels anything still running.
+   */
+  static final class Subtasks implements AutoCloseable {
+    private final ExecutorService executor;
+    private final List<Future<?>> forked = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    Subtasks(ExecutorService executor) {
+      this.executor = executor;
+    }
+
+    <T> Future<T> fork(Callable<T> task) {
+      Future<T> future = executor.submit(() -> {
+        try {
+          return task.call();
+        } catch (Exception e) {
+          if (failure.compareAndSet(null, e)) cancelAll();
+          throw e;
+        }
+      });
+      forked.add(future);
+      return future;
+    }
+
+    /**
+     * Waits for every subtask; throws the first failure, if any.
+     */
+    void join() throws InterruptedException, ExecutionException {
+      for (Future<?> future : forked) {
+        try {
+          future.get();
+        } catch (ExecutionException | CancellationException e) {
+          // reported below through the first recorded failure
+        }
+      }
+      Exception first = failure.get();
+      if (first != null) throw new ExecutionException(first);
+    }
+
+    private void cancelAll() {
+      forked.forEach(future -> future.cancel(true));
+    }
+
+    @Override
+    public void close() {
+      cancelAll();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.bfhs;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Access to virtual threads without compiling against Java 21, so the same jar runs on 17
+ * (falling back to platform threads) and on 21 (one virtual thread per task).
+ */
+final class VirtualThreads {
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+  private VirtualThreads() {
+  }
+
+  static boolean available() {
+    return Runtime.version().feature() >= 21;
+  }
+
+  /**
+   * {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21+, otherwise a cached pool.
+   */
+  static ExecutorService newPerTaskExecutor() {
+    if (available()) {
+      try {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        log.warn("Could not create virtual thread executor: {}", e.getMessage());
+      }
+    } else {
+      log.warn("Virtual threads need Java 21+, running on {}; using platform threads", Runtime.version());
+    }
+    return Executors.newCachedThreadPool();
+  }
+}
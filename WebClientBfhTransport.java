@@ -0,0 +1,62 @@
+package com.example.bfhs;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Default transport on Spring {@link WebClient} over Reactor Netty.
+ */
+@Component
+@ConditionalOnProperty(name = "bfh.transport", havingValue = "webclient", matchIfMissing = true)
+public class WebClientBfhTransport implements BfhTransport {
+  private final WebClient webClient;
+
+  public WebClientBfhTransport(WebClient.Builder webClientBuilder) {
+    this.webClient = webClientBuilder
+        .baseUrl("") // we'll use full urls per call
+        .build();
+  }
+
+  @Override
+  public Mono<GenerateResponse> generate(String url, Map<String, String> body) {
+    return webClient.post()
+        .uri(URI.create(url))
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .retrieve()
+        .bodyToMono(GenerateResponse.class);
+  }
+
+  @Override
+  public Mono<ResponseEntity<Flux<DataBuffer>>> fetch(String url, HttpHeaders headers) {
+    return webClient.get()
+        .uri(URI.create(url))
+        .headers(requestHeaders -> requestHeaders.addAll(headers))
+        .retrieve()
+        .toEntityFlux(DataBuffer.class);
+  }
+
+  @Override
+  public Mono<String> submit(String url, String accessToken, Map<String, String> body) {
+    return webClient.post()
+        .uri(URI.create(url))
+        .header(HttpHeaders.AUTHORIZATION, accessToken)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(BodyInserters.fromValue(body))
+        .retrieve()
+        .bodyToMono(String.class)
+        .defaultIfEmpty("");
+  }
+}
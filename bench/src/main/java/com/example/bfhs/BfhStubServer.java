@@ -0,0 +1,196 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Embedded stand-in for the BFH gateway and the question pages. Every route waits
+ * {@code latency} before answering and fails with a 500 with probability {@code errorRate};
+ * question pages are padded to at least {@code payloadSize} bytes. Question pages are also served
+ * behind Drive-style share links (see {@link #shareUrl(int)}). Speaks HTTP/1.1 and cleartext
+ * HTTP/2 (h2c) and counts accepted connections.
+ */
+public class BfhStubServer implements AutoCloseable {
+  public static final String GENERATE_PATH = "/hiring/generateWebhook/JAVA";
+  public static final String SUBMIT_PATH = "/hiring/testWebhook/JAVA";
+  public static final String QUESTION_1_PATH = "/questions/1";
+  public static final String QUESTION_2_PATH = "/questions/2";
+  public static final String DRIVE_DOWNLOAD_PATH = "/uc";
+  private static final String DRIVE_CONFIRM_PATH = "/download";
+
+  private final Duration latency;
+  private final double errorRate;
+  private final String question1;
+  private final String question2;
+  private final LongAdder connections = new LongAdder();
+  private final LongAdder driveResolutions = new LongAdder();
+  private final AtomicLong firstRequestNanos = new AtomicLong();
+  private DisposableServer server;
+
+  public BfhStubServer(Duration latency, double errorRate, int payloadSize) {
+    this.latency = latency;
+    this.errorRate = errorRate;
+    this.question1 = pad(BenchData.QUESTION_1, payloadSize);
+    this.question2 = pad(BenchData.QUESTION_2, payloadSize);
+  }
+
+  /**
+   * Runs the stub on its own until killed, e.g. for {@code scripts/native-smoke-test.sh}:
+   * <pre>
+   *   java -cp bench/target/benchmarks.jar com.example.bfhs.BfhStubServer port=18080 latency=0
+   * </pre>
+   */
+  public static void main(String[] args) {
+    Map<String, String> options = FlowLoadDriver.parse(args);
+    BfhStubServer stub = new BfhStubServer(
+        Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "0").replace("ms", ""))),
+        Double.parseDouble(options.getOrDefault("errorRate", "0")),
+        Integer.parseInt(options.getOrDefault("payloadSize", "0")))
+        .start(Integer.parseInt(options.getOrDefault("port", "0")));
+    System.out.println("BFH stub listening on " + stub.baseUrl());
+    stub.server.onDispose().block();
+  }
+
+  public BfhStubServer start() {
+    return start(0);
+  }
+
+  public BfhStubServer start(int port) {
+    server = HttpServer.create()
+        .host("127.0.0.1")
+        .port(port)
+        .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+        .doOnConnection(connection -> connections.increment())
+        .route(routes -> routes
+            .post(GENERATE_PATH, (request, response) -> respond(request, response, "application/json",
+                "{\"webhook\":\"" + baseUrl() + SUBMIT_PATH + "\",\"accessToken\":\"stub-token\"}"))
+            .post(SUBMIT_PATH, (request, response) -> respond(request, response, "application/json",
+                "{\"success\":true}"))
+            .get(QUESTION_1_PATH, (request, response) -> respond(request, response, "text/plain", question1))
+            .get(QUESTION_2_PATH, (request, response) -> respond(request, response, "text/plain", question2))
+            .get("/file/d/{id}/view", (request, response) -> respond(request, response, "text/html",
+                "<html><head><title>" + request.param("id") + " - Google Drive</title></head><body></body></html>"))
+            .get(DRIVE_DOWNLOAD_PATH, this::driveDownload)
+            .get(DRIVE_CONFIRM_PATH, this::driveConfirm))
+        .bindNow();
+    return this;
+  }
+
+  public String baseUrl() {
+    return "http://127.0.0.1:" + server.port();
+  }
+
+  /**
+   * A Drive-style share link for question 1 or 2, served behind a redirect and a virus-scan
+   * interstitial like the real thing. Point {@code bfh.drive.download-url} at
+   * {@link #driveDownloadUrl()} to resolve it.
+   */
+  public String shareUrl(int question) {
+    return baseUrl() + "/file/d/question-" + question + "/view?usp=sharing";
+  }
+
+  public String driveDownloadUrl() {
+    return baseUrl() + DRIVE_DOWNLOAD_PATH + "?export=download&id={id}";
+  }
+
+  /**
+   * Requests that started at the direct-download URL, i.e. share links that were not served from
+   * an already resolved URL.
+   */
+  public long driveResolutionCount() {
+    return driveResolutions.sum();
+  }
+
+  /**
+   * Connections accepted since start (or the last reset).
+   */
+  public long connectionCount() {
+    return connections.sum();
+  }
+
+  public void resetConnectionCount() {
+    connections.reset();
+  }
+
+  /**
+   * {@link System#nanoTime()} at which the first routed request since start (or the last reset)
+   * arrived, or 0 if none has.
+   */
+  public long firstRequestNanos() {
+    return firstRequestNanos.get();
+  }
+
+  public void resetFirstRequest() {
+    firstRequestNanos.set(0);
+  }
+
+  @Override
+  public void close() {
+    if (server != null) server.disposeNow();
+  }
+
+  private Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, String contentType, String body) {
+    firstRequestNanos.compareAndSet(0, System.nanoTime());
+    return request.receive().then()
+        .then(Mono.delay(latency))
+        .then(Mono.defer(() -> {
+          if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send();
+          }
+          return response.header(HttpHeaderNames.CONTENT_TYPE, contentType)
+              .sendString(Mono.just(body))
+              .then();
+        }));
+  }
+
+  private Mono<Void> driveDownload(HttpServerRequest request, HttpServerResponse response) {
+    driveResolutions.increment();
+    String id = queryParam(request, "id");
+    return request.receive().then()
+        .then(response.status(HttpResponseStatus.SEE_OTHER)
+            .header(HttpHeaderNames.LOCATION, DRIVE_CONFIRM_PATH + "?id=" + id + "&export=download")
+            .send());
+  }
+
+  private Mono<Void> driveConfirm(HttpServerRequest request, HttpServerResponse response) {
+    String id = queryParam(request, "id");
+    if (queryParam(request, "confirm") == null) {
+      return respond(request, response, "text/html; charset=utf-8",
+          "<html><body><p>Google Drive can't scan this file for viruses.</p>"
+              + "<form id=\"download-form\" action=\"" + DRIVE_CONFIRM_PATH + "\" method=\"get\">"
+              + "<input type=\"hidden\" name=\"id\" value=\"" + id + "\">"
+              + "<input type=\"hidden\" name=\"export\" value=\"download\">"
+              + "<input type=\"hidden\" name=\"confirm\" value=\"t\">"
+              + "<input type=\"submit\" value=\"Download anyway\"></form></body></html>");
+    }
+    return respond(request, response, "text/plain", "question-1".equals(id) ? question1 : question2);
+  }
+
+  private static String queryParam(HttpServerRequest request, String name) {
+    List<String> values = new QueryStringDecoder(request.uri()).parameters().get(name);
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+
+  private static String pad(String question, int payloadSize) {
+    if (question.length() >= payloadSize) return question;
+    StringBuilder padded = new StringBuilder(payloadSize).append(question).append('\n');
+    while (padded.length() < payloadSize) {
+      padded.append(".\n");
+    }
+    return padded.toString();
+  }
+}
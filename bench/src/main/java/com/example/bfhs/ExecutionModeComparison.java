@@ -0,0 +1,39 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the same load against the stub once per {@link FlowLauncher.Mode} and prints both reports.
+ * Run on Java 21 for the virtual thread numbers to mean anything.
+ * <pre>
+ *   java -cp bench/target/benchmarks.jar com.example.bfhs.ExecutionModeComparison flows=20000 concurrency=2000
+ * </pre>
+ */
+public class ExecutionModeComparison {
+  public static void main(String[] args) {
+    Map<String, String> options = FlowLoadDriver.parse(args);
+    int flows = Integer.parseInt(options.getOrDefault("flows", "10000"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+    Duration latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "20ms").replace("ms", "")));
+
+    try (BfhStubServer stub = new BfhStubServer(latency, 0, 4096).start()) {
+      for (FlowLauncher.Mode mode : FlowLauncher.Mode.values()) {
+        Map<String, String> modeOptions = new HashMap<>(options);
+        modeOptions.put("bfh.execution-mode", mode.name());
+        try (ConfigurableApplicationContext context = FlowLoadDriver.startSolver(stub, modeOptions)) {
+          FlowLauncher flowLauncher = context.getBean(FlowLauncher.class);
+          // one short pass to warm up the JIT and connection pool before measuring
+          FlowLoadDriver.run(flowLauncher, Math.min(flows, 1000), concurrency);
+          FlowLoadDriver.LoadReport report = FlowLoadDriver.run(flowLauncher, flows, concurrency);
+          System.out.printf("%nmode=%s flows=%d concurrency=%d stubLatency=%s java=%s%n",
+              mode, flows, concurrency, latency, Runtime.version());
+          report.print();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Runs many concurrent flows against {@link BfhStubServer} and reports throughput plus latency
+ * percentiles per stage.
+ * <pre>
+ *   java -cp bench/target/benchmarks.jar com.example.bfhs.FlowLoadDriver \
+ *       flows=10000 concurrency=256 latency=20ms errorRate=0.01 payloadSize=4096 questionCacheTtl=PT1H
+ * </pre>
+ * {@code drive=true} serves the questions behind Drive-style share links with a redirect and an
+ * interstitial. Any {@code bfh.*} option is passed to the solver, e.g.
+ * {@code bfh.execution-mode=virtual-threads} or {@code bfh.transport=jdk}.
+ */
+public class FlowLoadDriver {
+  public static void main(String[] args) {
+    Map<String, String> options = parse(args);
+    int flows = Integer.parseInt(options.getOrDefault("flows", "10000"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "256"));
+    Duration latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "20ms").replace("ms", "")));
+    double errorRate = Double.parseDouble(options.getOrDefault("errorRate", "0"));
+    int payloadSize = Integer.parseInt(options.getOrDefault("payloadSize", "4096"));
+
+    try (BfhStubServer stub = new BfhStubServer(latency, errorRate, payloadSize).start();
+         ConfigurableApplicationContext context = startSolver(stub, options)) {
+      FlowLauncher flowLauncher = context.getBean(FlowLauncher.class);
+      LoadReport report = run(flowLauncher, flows, concurrency);
+      System.out.printf("mode=%s flows=%d concurrency=%d stubLatency=%s errorRate=%.3f payloadSize=%d%n",
+          flowLauncher.mode(), flows, concurrency, latency, errorRate, payloadSize);
+      report.print();
+      System.out.printf("drive link resolutions: %d%n", stub.driveResolutionCount());
+      Runtime runtime = Runtime.getRuntime();
+      System.out.printf("heap used after run: %d MB%n", (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+  }
+
+  static ConfigurableApplicationContext startSolver(BfhStubServer stub, Map<String, String> options) {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("bfh.startup-flow.enabled", "false");
+    properties.put("bfh.generate.url", stub.baseUrl() + BfhStubServer.GENERATE_PATH);
+    properties.put("bfh.submit.url", stub.baseUrl() + BfhStubServer.SUBMIT_PATH);
+    if (Boolean.parseBoolean(options.getOrDefault("drive", "false"))) {
+      properties.put("bfh.question1.url", stub.shareUrl(1));
+      properties.put("bfh.question2.url", stub.shareUrl(2));
+      properties.put("bfh.drive.download-url", stub.driveDownloadUrl());
+    } else {
+      properties.put("bfh.question1.url", stub.baseUrl() + BfhStubServer.QUESTION_1_PATH);
+      properties.put("bfh.question2.url", stub.baseUrl() + BfhStubServer.QUESTION_2_PATH);
+    }
+    properties.put("bfh.question-cache.dir", "");
+    properties.put("bfh.question-cache.ttl", options.getOrDefault("questionCacheTtl", "PT1H"));
+    properties.put("bfh.solver-cache.file", "");
+    properties.put("logging.level.root", "WARN");
+    // anything else passed as bfh.*=value or spring.*=value goes straight to the context
+    options.forEach((key, value) -> {
+      if (key.startsWith("bfh.") || key.startsWith("spring.")) properties.put(key, value);
+    });
+    return new SpringApplicationBuilder(Application.class)
+        .web(WebApplicationType.NONE)
+        .properties(properties)
+        .run();
+  }
+
+  static LoadReport run(FlowLauncher flowLauncher, int flows, int concurrency) {
+    LoadReport report = new LoadReport();
+    long started = System.nanoTime();
+    Flux.range(0, flows)
+        .map(i -> new Candidate("Load " + i, String.format("REG%05d", i), "load" + i + "@example.com"))
+        .flatMap(flowLauncher::launch, concurrency)
+        .doOnNext(report::record)
+        .blockLast();
+    report.elapsedNanos = System.nanoTime() - started;
+    return report;
+  }
+
+  static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int eq = arg.indexOf('=');
+      if (eq > 0) options.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+    }
+    return options;
+  }
+
+  static class LoadReport {
+    private final Map<String, Histogram> stages = new HashMap<>();
+    private final Histogram total = new Histogram(3);
+    private final Map<FlowResult.Status, Long> statuses = new EnumMap<>(FlowResult.Status.class);
+    long elapsedNanos;
+
+    synchronized void record(FlowResult result) {
+      statuses.merge(result.getStatus(), 1L, Long::sum);
+      total.recordValue(result.getTotalMillis());
+      result.getStageMillis().forEach((stage, millis) ->
+          stages.computeIfAbsent(stage, s -> new Histogram(3)).recordValue(millis));
+    }
+
+    long count() {
+      return total.getTotalCount();
+    }
+
+    double throughput() {
+      return count() / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    void print() {
+      System.out.printf("completed=%d in %.2fs -> %.1f flows/s, statuses %s%n",
+          count(), elapsedNanos / 1e9, throughput(), statuses);
+      System.out.printf("%-10s %8s %8s %8s %8s %8s   (ms)%n", "stage", "p50", "p90", "p99", "p99.9", "max");
+      new TreeMap<>(stages).forEach(this::printRow);
+      printRow("total", total);
+    }
+
+    private void printRow(String stage, Histogram histogram) {
+      System.out.printf("%-10s %8d %8d %8d %8d %8d%n", stage,
+          histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+          histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.bfhs;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU-only steps of the flow: question choice, normalization and solving.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmark {
+  @Param({"REG12347", "22BCE10348", "X"})
+  public String regNo;
+
+  private final SqlSolver solver = new SqlSolver();
+
+  @Benchmark
+  public boolean regNoLastTwoDigitsOdd() {
+    return FlowService.isRegNoLastTwoDigitsOdd(regNo);
+  }
+
+  @Benchmark
+  public String normalizeQuestion() {
+    return QuestionNormalizer.normalize(BenchData.QUESTION_1_HTML);
+  }
+
+  @Benchmark
+  public String questionKey() {
+    return QuestionNormalizer.key(BenchData.QUESTION_1_HTML);
+  }
+
+  @Benchmark
+  public Optional<String> solveHighestSalary() {
+    return solver.solve(BenchData.QUESTION_1);
+  }
+
+  @Benchmark
+  public Optional<String> solveYoungerCount() {
+    return solver.solve(BenchData.QUESTION_2);
+  }
+}
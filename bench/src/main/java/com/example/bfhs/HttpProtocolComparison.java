@@ -0,0 +1,43 @@
+package com.example.bfhs;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the same stub load over HTTP/1.1 and over cleartext HTTP/2 and prints throughput and the
+ * number of connections the stub accepted for each.
+ * <pre>
+ *   java -cp bench/target/benchmarks.jar com.example.bfhs.HttpProtocolComparison flows=20000 concurrency=512
+ * </pre>
+ */
+public class HttpProtocolComparison {
+  public static void main(String[] args) {
+    Map<String, String> options = FlowLoadDriver.parse(args);
+    int flows = Integer.parseInt(options.getOrDefault("flows", "10000"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "512"));
+    Duration latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "20ms").replace("ms", "")));
+
+    try (BfhStubServer stub = new BfhStubServer(latency, 0, 4096).start()) {
+      for (String protocols : List.of("http11", "h2c")) {
+        Map<String, String> protocolOptions = new HashMap<>(options);
+        protocolOptions.put("bfh.http.protocols", protocols);
+        protocolOptions.put("bfh.http.warmup.enabled", "false");
+        // let the pool grow as far as HTTP/1.1 needs, so the connection counts are comparable
+        protocolOptions.putIfAbsent("bfh.http.pool.max-connections", String.valueOf(concurrency));
+        try (ConfigurableApplicationContext context = FlowLoadDriver.startSolver(stub, protocolOptions)) {
+          FlowLauncher flowLauncher = context.getBean(FlowLauncher.class);
+          FlowLoadDriver.run(flowLauncher, Math.min(flows, 1000), concurrency);
+          stub.resetConnectionCount();
+          FlowLoadDriver.LoadReport report = FlowLoadDriver.run(flowLauncher, flows, concurrency);
+          System.out.printf("%nprotocols=%s flows=%d concurrency=%d stubLatency=%s connections=%d%n",
+              protocols, flows, concurrency, latency, stub.connectionCount());
+          report.print();
+        }
+      }
+    }
+  }
+}
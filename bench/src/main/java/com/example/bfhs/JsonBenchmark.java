@@ -0,0 +1,45 @@
+package com.example.bfhs;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson (de)serialization of the generate response and the submit body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ObjectReader generateReader = objectMapper.readerFor(GenerateResponse.class);
+  private final ObjectWriter submitWriter = objectMapper.writerFor(Map.class);
+  private final Map<String, String> submitBody = Map.of("finalQuery", new SqlSolver().solve(BenchData.QUESTION_1).orElseThrow());
+
+  @Benchmark
+  public GenerateResponse readGenerateResponse() throws JsonProcessingException {
+    return generateReader.readValue(BenchData.GENERATE_RESPONSE_JSON);
+  }
+
+  @Benchmark
+  public byte[] writeSubmitBody() throws JsonProcessingException {
+    return submitWriter.writeValueAsBytes(submitBody);
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.bfhs;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ways of loading {@code bfh.local.question-file}: the old readAllLines + join, Files.readString,
+ * a memory-mapped decode and the reactive chunked read used by {@link LocalFileQuestionSource}.
+ * Run with {@code -prof gc} to compare allocation per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalFileBenchmark {
+  @Param({"4096", "1048576", "16777216"})
+  private int fileSize;
+
+  private Path file;
+
+  @Setup(Level.Trial)
+  public void writeFile() throws IOException {
+    StringBuilder content = new StringBuilder(fileSize + BenchData.QUESTION_1.length());
+    while (content.length() < fileSize) {
+      content.append(BenchData.QUESTION_1).append('\n');
+    }
+    file = Files.createTempFile("bfh-question-", ".txt");
+    Files.writeString(file, content, StandardCharsets.UTF_8);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public String readAllLinesJoin() throws IOException {
+    return String.join("\n", Files.readAllLines(file));
+  }
+
+  @Benchmark
+  public String readString() throws IOException {
+    return Files.readString(file);
+  }
+
+  @Benchmark
+  public String memoryMapped() throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return StandardCharsets.UTF_8.decode(mapped).toString();
+    }
+  }
+
+  @Benchmark
+  public String reactiveChunked() {
+    return LocalFileQuestionSource.read(file).block();
+  }
+}
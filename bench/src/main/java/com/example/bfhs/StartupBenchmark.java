@@ -0,0 +1,104 @@
+package com.example.bfhs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Launches the one-shot CLI as a child process against {@link BfhStubServer} and reports the time
+ * from process start to the first request the stub receives (time-to-first-request) and to
+ * process exit, for the plain jar, with Spring AOT, and with AOT plus the AppCDS archive.
+ * <pre>
+ *   mvn -Pcds package
+ *   java -cp bench/target/benchmarks.jar com.example.bfhs.StartupBenchmark \
+ *       jar=target/bfhs-solver-1.0.0.jar archive=target/app.jsa runs=10
+ * </pre>
+ * Run it from the project root: the archive only applies with the classpath it was recorded with.
+ */
+public class StartupBenchmark {
+  public static void main(String[] args) throws IOException, InterruptedException {
+    Map<String, String> options = FlowLoadDriver.parse(args);
+    Path jar = Path.of(options.getOrDefault("jar", "target/bfhs-solver-1.0.0.jar"));
+    Path archive = Path.of(options.getOrDefault("archive", "target/app.jsa"));
+    int runs = Integer.parseInt(options.getOrDefault("runs", "10"));
+    if (!Files.exists(jar)) {
+      throw new IllegalArgumentException(jar + " not found, build it with mvn -Pcds package");
+    }
+
+    Map<String, List<String>> variants = new LinkedHashMap<>();
+    variants.put("baseline", List.of());
+    variants.put("aot", List.of("-Dspring.aot.enabled=true"));
+    if (Files.exists(archive)) {
+      variants.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive));
+    } else {
+      System.out.printf("%s not found, skipping the aot+cds variant%n", archive);
+    }
+
+    try (BfhStubServer stub = new BfhStubServer(Duration.ZERO, 0, 0).start()) {
+      System.out.printf("%-10s %28s %28s%n", "variant", "first request ms (p50/min/max)", "exit ms (p50/min/max)");
+      for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+        run(stub, jar, variant.getValue()); // warm the page cache, not counted
+        long[] firstRequest = new long[runs];
+        long[] exit = new long[runs];
+        for (int i = 0; i < runs; i++) {
+          long[] timings = run(stub, jar, variant.getValue());
+          firstRequest[i] = timings[0];
+          exit[i] = timings[1];
+        }
+        System.out.printf("%-10s %28s %28s%n", variant.getKey(), summary(firstRequest), summary(exit));
+      }
+    }
+  }
+
+  /**
+   * Millis from launch to the stub's first request, and to process exit.
+   */
+  private static long[] run(BfhStubServer stub, Path jar, List<String> jvmOptions)
+      throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmOptions);
+    command.add("-jar");
+    command.add(jar.toString());
+    command.add("--bfh.generate.url=" + stub.baseUrl() + BfhStubServer.GENERATE_PATH);
+    command.add("--bfh.submit.url=" + stub.baseUrl() + BfhStubServer.SUBMIT_PATH);
+    command.add("--bfh.question1.url=" + stub.baseUrl() + BfhStubServer.QUESTION_1_PATH);
+    command.add("--bfh.question2.url=" + stub.baseUrl() + BfhStubServer.QUESTION_2_PATH);
+    command.add("--bfh.question-cache.dir=");
+    command.add("--bfh.solver-cache.file=");
+    command.add("--logging.level.root=WARN");
+
+    stub.resetFirstRequest();
+    long started = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .redirectError(ProcessBuilder.Redirect.INHERIT)
+        .start();
+    if (!process.waitFor(2, TimeUnit.MINUTES)) {
+      process.destroyForcibly();
+      throw new IllegalStateException("Solver did not exit within 2 minutes: " + command);
+    }
+    long exited = System.nanoTime();
+    if (process.exitValue() != 0) {
+      throw new IllegalStateException("Solver exited with " + process.exitValue() + ": " + command);
+    }
+    long firstRequest = stub.firstRequestNanos();
+    return new long[] {
+        firstRequest == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(firstRequest - started),
+        TimeUnit.NANOSECONDS.toMillis(exited - started)
+    };
+  }
+
+  private static String summary(long[] millis) {
+    long[] sorted = millis.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2] + " / " + sorted[0] + " / " + sorted[sorted.length - 1];
+  }
+}
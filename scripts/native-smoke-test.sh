@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Runs the native CLI binary once against the local BFH stub and checks that the flow submits.
+#   mvn -Pnative package
+#   (cd bench && mvn package)
+#   scripts/native-smoke-test.sh [port]
+set -e
+cd "$(dirname "$0")/.."
+
+BINARY=target/bfhs-solver
+STUB_JAR=bench/target/benchmarks.jar
+PORT=${1:-18080}
+BASE=http://127.0.0.1:$PORT
+WORK=$(mktemp -d)
+
+for f in "$BINARY" "$STUB_JAR"; do
+  if [ ! -e "$f" ]; then
+    echo "Missing $f, see the usage at the top of this script" >&2
+    exit 1
+  fi
+done
+
+java -cp "$STUB_JAR" com.example.bfhs.BfhStubServer port="$PORT" > "$WORK/stub.log" 2>&1 &
+STUB_PID=$!
+trap 'kill $STUB_PID 2>/dev/null; rm -rf "$WORK"' EXIT
+
+i=0
+until grep -q "listening on" "$WORK/stub.log"; do
+  i=$((i + 1))
+  if [ $i -gt 30 ] || ! kill -0 $STUB_PID 2>/dev/null; then
+    echo "Stub did not start:" >&2
+    cat "$WORK/stub.log" >&2
+    exit 1
+  fi
+  sleep 1
+done
+
+SECONDS=0
+set +e
+"$BINARY" \
+  --bfh.generate.url="$BASE/hiring/generateWebhook/JAVA" \
+  --bfh.submit.url="$BASE/hiring/testWebhook/JAVA" \
+  --bfh.question1.url="$BASE/questions/1" \
+  --bfh.question2.url="$BASE/questions/2" \
+  --bfh.question-cache.dir= \
+  --bfh.solver-cache.file= \
+  > "$WORK/solver.log" 2>&1
+status=$?
+set -e
+elapsed=$SECONDS
+
+if [ $status -ne 0 ] || ! grep -q "Flow finished with status SUBMITTED" "$WORK/solver.log"; then
+  echo "Native smoke test FAILED (exit $status):" >&2
+  cat "$WORK/solver.log" >&2
+  exit 1
+fi
+echo "Native smoke test passed: flow submitted, process exited after about ${elapsed} s"
@@ -0,0 +1,18 @@
+#!/bin/sh
+# Launches the one-shot CLI with the artifacts from `mvn -Pcds package`:
+#   - AOT-generated bean definitions instead of runtime configuration class parsing
+#   - the AppCDS archive recorded by the training run, so JDK, Spring and app classes are
+#     mapped pre-parsed instead of being loaded and verified one by one
+# Arguments are passed to the application, e.g. --bfh.regNo=REG12348.
+# The classpath must be the same as in the training run, so run it from the project root.
+set -e
+cd "$(dirname "$0")/.."
+
+JAR=target/bfhs-solver-1.0.0.jar
+ARCHIVE=target/app.jsa
+if [ ! -f "$JAR" ] || [ ! -f "$ARCHIVE" ]; then
+  echo "Missing $JAR or $ARCHIVE, build them with: mvn -Pcds package" >&2
+  exit 1
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -Dspring.aot.enabled=true $JAVA_OPTS -jar "$JAR" "$@"
@@ -0,0 +1,53 @@
+package com.example.bfhs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+class HtmlTextExtractorTest {
+  private static final String PAGE = "<html><head><meta property=\"og:title\" content=\"Q &amp; A\">"
+      + "<script>if (a < b) {}</script></head><body><p>Fish &amp; Chips</p><p>a &lt; b</p>"
+      + "<table><tr><td>EMP_ID</td><td>NAME</td></tr></table></body></html>";
+
+  @Test
+  void keepsQuestionLinesAndDropsScriptsAndStyles() {
+    String html = "<html><head><title>question1.pdf</title><style>body { font-family: Arial; }</style>"
+        + "<script>var _docs = {};</script></head><body><div>"
+        + SqlSolverTest.QUESTION_1.replace("\n", "<br/>&nbsp;") + "</div></body></html>";
+    HtmlTextExtractor.Result result = HtmlTextExtractor.extract(html);
+    assertEquals("question1.pdf", result.title());
+    assertEquals(SqlSolverTest.QUESTION_1.strip(), result.text());
+  }
+
+  @Test
+  void decodesEntitiesAndCollectsMetadata() {
+    HtmlTextExtractor.Result result = HtmlTextExtractor.extract(PAGE);
+    assertEquals("Fish & Chips\n\na < b\n\nEMP_ID NAME", result.text());
+    assertEquals(Map.of("og:title", "Q & A"), result.metadata());
+  }
+
+  @Test
+  void chunkBoundariesMayFallAnywhere() {
+    List<String> chunks = new ArrayList<>();
+    for (int i = 0; i < PAGE.length(); i += 3) {
+      chunks.add(PAGE.substring(i, Math.min(PAGE.length(), i + 3)));
+    }
+    HtmlTextExtractor.Result result = HtmlTextExtractor.extract(Flux.fromIterable(chunks)).block();
+    assertEquals(HtmlTextExtractor.extract(PAGE), result);
+  }
+
+  @Test
+  void detectsHtmlFromContentTypeOrDoctype() {
+    assertTrue(HtmlTextExtractor.looksLikeHtml(null, "  <!DOCTYPE html><html>"));
+    assertTrue(HtmlTextExtractor.looksLikeHtml("text/html; charset=utf-8", "plain"));
+    assertFalse(HtmlTextExtractor.looksLikeHtml("text/plain", "<html>"));
+  }
+}
@@ -0,0 +1,22 @@
+package com.example.bfhs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalFileQuestionSourceTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void readNormalizesLineEndings() throws IOException {
+    Path file = dir.resolve("question.txt");
+    Files.writeString(file, "Table 1\r\nEMP_ID NAME\r1 John\n");
+    assertEquals("Table 1\nEMP_ID NAME\n1 John", LocalFileQuestionSource.read(file).block());
+  }
+}
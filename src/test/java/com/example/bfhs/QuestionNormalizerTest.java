@@ -0,0 +1,35 @@
+package com.example.bfhs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class QuestionNormalizerTest {
+  @Test
+  void stripsMarkupEntitiesAndWhitespace() {
+    assertEquals("Hello World & more",
+        QuestionNormalizer.normalize("<p>Hello&nbsp;<b>World</b></p>\n\n  &amp; more<script>x()</script>"));
+    assertEquals("A<B>", QuestionNormalizer.normalize("&#65;&lt;B&gt;"));
+    assertEquals("", QuestionNormalizer.normalize(null));
+  }
+
+  @Test
+  void htmlAndPlainTextShareAKey() {
+    String html = "<div>" + SqlSolverTest.QUESTION_1.replace("\n", "<br/>&nbsp;") + "</div>";
+    assertEquals(QuestionNormalizer.key(SqlSolverTest.QUESTION_1), QuestionNormalizer.key(html));
+    assertEquals(QuestionNormalizer.key("Order the output by id"),
+        QuestionNormalizer.key("Order  the output\r\n by id "));
+  }
+
+  @Test
+  void keyKeepsCase() {
+    // the solver reads upper-case table headers, so these may solve differently
+    assertNotEquals(QuestionNormalizer.key("Order by EMP_ID"), QuestionNormalizer.key("order by emp_id"));
+  }
+
+  @Test
+  void keyIs128BitHex() {
+    assertEquals(32, QuestionNormalizer.key("x").length());
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.bfhs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SolverCacheTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void solvesEachNormalizedQuestionOnce() {
+    SolverCache cache = new SolverCache(100, "");
+    AtomicInteger calls = new AtomicInteger();
+    Function<String, Optional<String>> solver = question -> {
+      calls.incrementAndGet();
+      return Optional.of("SELECT 1;");
+    };
+    assertEquals(Optional.of("SELECT 1;"), cache.solve("Order  by id", solver));
+    assertEquals(Optional.of("SELECT 1;"), cache.solve("<p>Order by id</p>", solver));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void remembersUnsolvedQuestions() {
+    SolverCache cache = new SolverCache(100, "");
+    AtomicInteger calls = new AtomicInteger();
+    Function<String, Optional<String>> solver = question -> {
+      calls.incrementAndGet();
+      return Optional.empty();
+    };
+    assertEquals(Optional.empty(), cache.solve("What is the capital of France?", solver));
+    assertEquals(Optional.empty(), cache.solve("What is the capital of France?", solver));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void reloadsOnlyResultsOfTheCurrentTemplateVersion() throws Exception {
+    Path file = dir.resolve("solver.tsv");
+    SolverCache first = new SolverCache(100, file.toString());
+    first.solve("Order by id", question -> Optional.of("SELECT 1;"));
+    first.close();
+
+    String stale = "v" + (SqlTemplates.VERSION - 1) + ":" + QuestionNormalizer.key("Stale question") + '\t'
+        + Base64.getEncoder().encodeToString("SELECT 0;".getBytes(StandardCharsets.UTF_8)) + '\n';
+    Files.writeString(file, stale, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    SolverCache second = new SolverCache(100, file.toString());
+    assertEquals(Optional.of("SELECT 1;"), second.solve("Order by id", question -> Optional.empty()));
+    assertEquals(Optional.empty(), second.solve("Stale question", question -> Optional.empty()));
+    second.close();
+  }
+}
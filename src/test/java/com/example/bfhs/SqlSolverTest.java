@@ -0,0 +1,77 @@
+package com.example.bfhs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class SqlSolverTest {
+  static final String QUESTION_1 = "Problem Statement\n"
+      + "Find the highest salary that was credited to an employee, but only for transactions that were not "
+      + "made on the 1st day of any month. Along with the salary, you are also required to extract the "
+      + "employee data like name (combine first name and last name into one column), age and department.\n\n"
+      + "Table 1: DEPARTMENT Table\nDEPARTMENT_ID DEPARTMENT_NAME\n1 HR\n2 Finance\n3 Engineering\n\n"
+      + "Table 2: EMPLOYEE Table\nEMP_ID FIRST_NAME LAST_NAME DOB GENDER DEPARTMENT\n"
+      + "1 John Williams 1980-05-15 Male 3\n2 Sarah Johnson 1990-07-20 Female 2\n\n"
+      + "Table 3: PAYMENTS Table\nPAYMENT_ID EMP_ID AMOUNT PAYMENT_TIME\n"
+      + "1 2 65784.00 2025-01-01 13:44:12.824\n2 1 62736.00 2025-01-06 18:36:37.892\n";
+
+  static final String QUESTION_2 = "Problem Statement\n"
+      + "Calculate the number of employees who are younger than each employee, grouped by their respective "
+      + "departments. For each employee, return the count of employees in the same department whose age is "
+      + "less than theirs. Order the output by employee id in descending order.\n\n"
+      + "Table 1: DEPARTMENT Table\nDEPARTMENT_ID DEPARTMENT_NAME\n1 HR\n2 Finance\n\n"
+      + "Table 2: EMPLOYEE Table\nEMP_ID FIRST_NAME LAST_NAME DOB GENDER DEPARTMENT\n"
+      + "1 John Williams 1980-05-15 Male 2\n";
+
+  private static final String YOUNGER_COUNT = "SELECT e1.EMP_ID, e1.FIRST_NAME, e1.LAST_NAME, d.DEPARTMENT_NAME, "
+      + "COUNT(e2.EMP_ID) AS YOUNGER_EMPLOYEES_COUNT FROM EMPLOYEE e1 "
+      + "JOIN DEPARTMENT d ON d.DEPARTMENT_ID = e1.DEPARTMENT "
+      + "LEFT JOIN EMPLOYEE e2 ON e2.DEPARTMENT = e1.DEPARTMENT AND e2.DOB > e1.DOB "
+      + "GROUP BY e1.EMP_ID, e1.FIRST_NAME, e1.LAST_NAME, d.DEPARTMENT_NAME ORDER BY e1.EMP_ID";
+
+  private final SqlSolver solver = new SqlSolver();
+
+  @Test
+  void highestSalaryExcludingFirstOfMonth() {
+    assertEquals(Optional.of("SELECT p.AMOUNT AS SALARY, CONCAT(e.FIRST_NAME, ' ', e.LAST_NAME) AS NAME, "
+            + "TIMESTAMPDIFF(YEAR, e.DOB, CURDATE()) AS AGE, d.DEPARTMENT_NAME FROM PAYMENTS p "
+            + "JOIN EMPLOYEE e ON e.EMP_ID = p.EMP_ID JOIN DEPARTMENT d ON d.DEPARTMENT_ID = e.DEPARTMENT "
+            + "WHERE DAY(p.PAYMENT_TIME) <> 1 ORDER BY p.AMOUNT DESC LIMIT 1;"),
+        solver.solve(QUESTION_1));
+  }
+
+  @Test
+  void highestSalaryWithoutExcludedDayHasNoFilter() {
+    String question = QUESTION_1.replace(
+        ", but only for transactions that were not made on the 1st day of any month", "");
+    String sql = solver.solve(question).orElseThrow();
+    assertTrue(sql.contains("JOIN DEPARTMENT d ON d.DEPARTMENT_ID = e.DEPARTMENT ORDER BY p.AMOUNT DESC"), sql);
+  }
+
+  @Test
+  void youngerCountOrderedDescendingWhenAsked() {
+    assertEquals(Optional.of(YOUNGER_COUNT + " DESC;"), solver.solve(QUESTION_2));
+  }
+
+  @Test
+  void youngerCountOrderedAscendingByDefault() {
+    String question = QUESTION_2.replace(" in descending order", "")
+        + "\nSee the description of each table below.\n";
+    assertEquals(Optional.of(YOUNGER_COUNT + " ASC;"), solver.solve(question));
+  }
+
+  @Test
+  void unknownQuestionIsNotSolved() {
+    assertEquals(Optional.empty(), solver.solve("What is the capital of France?"));
+  }
+
+  @Test
+  void classifiesBothQuestions() {
+    QuestionClassifier classifier = new QuestionClassifier();
+    assertEquals(QuestionKind.HIGHEST_AMOUNT_WITH_DETAILS, classifier.classify(QUESTION_1));
+    assertEquals(QuestionKind.YOUNGER_COUNT_PER_GROUP, classifier.classify(QUESTION_2));
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.bfhs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import reactor.core.publisher.Flux;
+
+class StreamingBodiesTest {
+  @Test
+  void limitPassesBodiesUpToTheCap() {
+    assertEquals("abcdef", text(StreamingBodies.limit(body("abc".getBytes(), "def".getBytes()), 6)));
+  }
+
+  @Test
+  void limitFailsPastTheCap() {
+    Flux<DataBuffer> limited = StreamingBodies.limit(body("abc".getBytes(), "def".getBytes(), "g".getBytes()), 6);
+    assertThrows(DataBufferLimitException.class, () -> text(limited));
+  }
+
+  @Test
+  void decodeCarriesCharactersSplitAcrossBuffers() {
+    byte[] accented = "\u00e9".getBytes(StandardCharsets.UTF_8);
+    Flux<DataBuffer> split = body(new byte[] {'a', accented[0]}, new byte[] {accented[1], 'b'});
+    assertEquals("a\u00e9b", StreamingBodies.decode(split, StandardCharsets.UTF_8)
+        .collect(Collectors.joining())
+        .block());
+  }
+
+  @Test
+  void joinLeadingCoalescesSmallFirstBuffers() {
+    Flux<DataBuffer> pdf = body("%P".getBytes(), "DF".getBytes(), "-1.7".getBytes(), "rest".getBytes());
+    List<DataBuffer> buffers = StreamingBodies.joinLeading(pdf, PdfTextExtractor.HEADER_LENGTH).collectList().block();
+    assertEquals(2, buffers.size());
+    assertTrue(PdfTextExtractor.isPdf(buffers.get(0)));
+    buffers.forEach(DataBufferUtils::release);
+  }
+
+  @Test
+  void joinLeadingPassesShortBodiesWhole() {
+    assertEquals("ab", text(StreamingBodies.joinLeading(body("a".getBytes(), "b".getBytes()), 5)));
+  }
+
+  static Flux<DataBuffer> body(byte[]... chunks) {
+    return Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+  }
+
+  static String text(Flux<DataBuffer> body) {
+    return DataBufferUtils.join(body)
+        .map(joined -> {
+          String text = joined.toString(StandardCharsets.UTF_8);
+          DataBufferUtils.release(joined);
+          return text;
+        })
+        .block();
+  }
+}